@@ -0,0 +1,195 @@
+package suyuan.pickerview.tools;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成suyuan.pickerview.PackedDataset格式的文件，在构建时使用，将生成的文件放到assets中
+ * 这是一个单独的JVM模块，不会打包到PickerView库中，格式的常量需要与PackedDataset保持一致
+ * <p>
+ * 可以通过代码构建节点树，也可以直接通过命令行转换缩进格式的文本文件：
+ * <pre>
+ * java -jar packedDatasetWriter.jar input.txt output.pkd
+ * </pre>
+ * 文本文件中每一行是一个节点，用tab或者两个空格表示一级缩进，缩进更深的行是上一个缩进更浅的行的子节点，例如：
+ * <pre>
+ * 广东省
+ *   广州市
+ *     天河区
+ * </pre>
+ * 相同的文本在字符串池中只会保存一次
+ *
+ * @author suyuan
+ */
+public final class PackedDatasetWriter {
+    static final int MAGIC = 0x504B4453;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final int NODE_SIZE = 16;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private final List<Node> roots = new ArrayList<>();
+
+    public static final class Node {
+        final String text;
+        final List<Node> children = new ArrayList<>();
+
+        Node(String text) {
+            this.text = text;
+        }
+
+        /**
+         * 添加子节点
+         *
+         * @param text 子节点的文本
+         * @return 子节点
+         */
+        @NonNull
+        public Node addChild(@NonNull String text) {
+            Node child = new Node(text);
+            children.add(child);
+            return child;
+        }
+    }
+
+    /**
+     * 添加根节点
+     *
+     * @param text 根节点的文本
+     * @return 根节点
+     */
+    @NonNull
+    public Node addRoot(@NonNull String text) {
+        Node root = new Node(text);
+        roots.add(root);
+        return root;
+    }
+
+    /**
+     * 读取缩进格式的文本，添加为节点树
+     *
+     * @param reader 文本
+     * @throws IOException 读取失败或者缩进不正确
+     */
+    public void readIndentedText(@NonNull Reader reader) throws IOException {
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        // path.get(i)为当前深度为i的节点
+        List<Node> path = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            int depth = 0;
+            int index = 0;
+            while (index < line.length()) {
+                if (line.charAt(index) == '\t') {
+                    index++;
+                } else if (line.startsWith("  ", index)) {
+                    index += 2;
+                } else {
+                    break;
+                }
+                depth++;
+            }
+            if (depth > path.size()) {
+                throw new IOException("line " + lineNumber + ": indentation skips a level");
+            }
+            String text = line.substring(index).trim();
+            Node node = depth == 0 ? addRoot(text) : path.get(depth - 1).addChild(text);
+            while (path.size() > depth) {
+                path.remove(path.size() - 1);
+            }
+            path.add(node);
+        }
+    }
+
+    /**
+     * 将节点树写出为PackedDataset格式，相同的文本只写入一次
+     * 节点按照广度优先的顺序编号，保证同一个节点的子节点的id是连续的
+     *
+     * @param outputStream 输出流，写完之后不会关闭
+     * @throws IOException 写入失败
+     */
+    public void write(@NonNull OutputStream outputStream) throws IOException {
+        List<Node> nodes = new ArrayList<>();
+        ArrayDeque<Node> queue = new ArrayDeque<>(roots);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            nodes.add(node);
+            queue.addAll(node.children);
+        }
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        Map<String, int[]> pooledTexts = new HashMap<>();
+        int[] textOffsets = new int[nodes.size()];
+        int[] textLengths = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            String text = nodes.get(i).text;
+            int[] pooled = pooledTexts.get(text);
+            if (pooled == null) {
+                byte[] bytes = text.getBytes(UTF_8);
+                pooled = new int[]{pool.size(), bytes.length};
+                pool.write(bytes, 0, bytes.length);
+                pooledTexts.put(text, pooled);
+            }
+            textOffsets[i] = pooled[0];
+            textLengths[i] = pooled[1];
+        }
+        DataOutputStream dataOutputStream = new DataOutputStream(new BufferedOutputStream(outputStream));
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeInt(VERSION);
+        dataOutputStream.writeInt(nodes.size());
+        dataOutputStream.writeInt(roots.size());
+        dataOutputStream.writeInt(HEADER_SIZE + nodes.size() * NODE_SIZE);
+        // 广度优先编号时，第一个子节点的id等于之前所有节点的子节点数量之和再加上根节点的数量
+        int nextChild = roots.size();
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            dataOutputStream.writeInt(textOffsets[i]);
+            dataOutputStream.writeInt(textLengths[i]);
+            dataOutputStream.writeInt(node.children.isEmpty() ? -1 : nextChild);
+            dataOutputStream.writeInt(node.children.size());
+            nextChild += node.children.size();
+        }
+        pool.writeTo(dataOutputStream);
+        dataOutputStream.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: PackedDatasetWriter <input.txt> <output.pkd>");
+            System.exit(1);
+        }
+        PackedDatasetWriter writer = new PackedDatasetWriter();
+        InputStreamReader reader = new InputStreamReader(new FileInputStream(new File(args[0])), UTF_8);
+        try {
+            writer.readIndentedText(reader);
+        } finally {
+            reader.close();
+        }
+        OutputStream outputStream = new FileOutputStream(new File(args[1]));
+        try {
+            writer.write(outputStream);
+        } finally {
+            outputStream.close();
+        }
+    }
+}
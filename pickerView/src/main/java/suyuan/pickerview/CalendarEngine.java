@@ -0,0 +1,141 @@
+package suyuan.pickerview;
+
+import androidx.annotation.NonNull;
+
+/**
+ * DatePicker使用的历法，提供年月日的范围以及与公历之间的转换
+ * 月份用在该年中的序号monthIndex表示，从0开始，有闰月的年份一共有13个月，闰月紧跟在同名的月份之后
+ * 不同历法之间通过epoch天数（距离公历1970-01-01的天数）转换
+ * <p>
+ * 实现必须是无状态的，所有方法都可能在滚动时频繁调用，不能创建对象
+ *
+ * @author suyuan
+ */
+public abstract class CalendarEngine {
+    /**
+     * {@link #fromEpochDay(long, int[])}的结果中年份的下标
+     */
+    public static final int YEAR = 0;
+    /**
+     * {@link #fromEpochDay(long, int[])}的结果中monthIndex的下标
+     */
+    public static final int MONTH_INDEX = 1;
+    /**
+     * {@link #fromEpochDay(long, int[])}的结果中日的下标
+     */
+    public static final int DAY = 2;
+
+    /**
+     * @return 支持的最小年份
+     */
+    public abstract int getMinYear();
+
+    /**
+     * @return 支持的最大年份
+     */
+    public abstract int getMaxYear();
+
+    /**
+     * 获取某一年闰的是哪个月
+     *
+     * @param year 年
+     * @return 闰月跟在哪个月之后，从1开始，没有闰月时为0
+     */
+    public abstract int getLeapMonth(int year);
+
+    /**
+     * 获取某个月的天数
+     *
+     * @param year       年
+     * @param monthIndex 月份在该年中的序号，从0开始
+     * @return 天数
+     */
+    public abstract int getDayCount(int year, int monthIndex);
+
+    /**
+     * 计算某一天距离公历1970-01-01的天数
+     *
+     * @param year       年
+     * @param monthIndex 月份在该年中的序号，从0开始
+     * @param day        日，从1开始
+     * @return epoch天数
+     */
+    public abstract long toEpochDay(int year, int monthIndex, int day);
+
+    /**
+     * {@link #toEpochDay(int, int, int)}的逆运算
+     *
+     * @param epochDay epoch天数
+     * @param date     长度至少为3的数组，依次写入年、monthIndex和日，参考{@link #YEAR}、{@link #MONTH_INDEX}和{@link #DAY}
+     */
+    public abstract void fromEpochDay(long epochDay, @NonNull int[] date);
+
+    /**
+     * @param year 年
+     * @return 该年的月份数量，有闰月时为13
+     */
+    public int getMonthCount(int year) {
+        return getLeapMonth(year) == 0 ? 12 : 13;
+    }
+
+    /**
+     * 获取某个序号对应的月份，闰月与它之前的月份相同
+     *
+     * @param year       年
+     * @param monthIndex 月份在该年中的序号，从0开始
+     * @return 月份，从1开始
+     */
+    public int getMonth(int year, int monthIndex) {
+        int leapMonth = getLeapMonth(year);
+        return leapMonth != 0 && monthIndex >= leapMonth ? monthIndex : monthIndex + 1;
+    }
+
+    /**
+     * @param year       年
+     * @param monthIndex 月份在该年中的序号，从0开始
+     * @return 该序号是否是闰月
+     */
+    public boolean isLeapMonth(int year, int monthIndex) {
+        int leapMonth = getLeapMonth(year);
+        return leapMonth != 0 && monthIndex == leapMonth;
+    }
+
+    /**
+     * 获取某个月份的序号，{@link #getMonth(int, int)}的逆运算
+     *
+     * @param year        年
+     * @param month       月份，从1开始
+     * @param isLeapMonth 是否是闰月，该年没有这个闰月时忽略
+     * @return 月份在该年中的序号，从0开始
+     */
+    public int getMonthIndex(int year, int month, boolean isLeapMonth) {
+        int leapMonth = getLeapMonth(year);
+        if (leapMonth == 0 || month < leapMonth || month == leapMonth && !isLeapMonth) {
+            return month - 1;
+        }
+        return month;
+    }
+
+    /**
+     * 写入月份的文本，默认为数字
+     *
+     * @param year       年
+     * @param monthIndex 月份在该年中的序号，从0开始
+     * @param buffer     文本缓冲区
+     */
+    public void writeMonthText(int year, int monthIndex, @NonNull TextBuffer buffer) {
+        buffer.appendInt(getMonth(year, monthIndex));
+    }
+
+    /**
+     * 写入日的文本，默认为数字
+     *
+     * @param year       年
+     * @param monthIndex 月份在该年中的序号，从0开始
+     * @param day        日，从1开始
+     * @param buffer     文本缓冲区
+     */
+    public void writeDayText(int year, int monthIndex, int day, @NonNull TextBuffer buffer) {
+        buffer.appendInt(day);
+    }
+}
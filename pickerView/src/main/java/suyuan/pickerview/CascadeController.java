@@ -0,0 +1,253 @@
+package suyuan.pickerview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 将多个PickerView联动起来，比如 省 -> 市 -> 区，类别 -> 商品 -> 规格
+ * 每一列的数据由上一列选中的数据通过{@link ChildProvider}获得，只有上一列滚动停止、真正选中的数据才会加载下一列，
+ * 滑动过程中经过的数据不会触发加载
+ * 最近使用过的子列表会被缓存起来，设置了Executor之后加载会在后台线程中进行，完成后回到主线程更新下一列
+ * <p>
+ * 数据类型T需要正确实现equals和hashCode，因为它会作为缓存的key
+ *
+ * @author suyuan
+ */
+public class CascadeController<T> {
+    private static final String TAG = "CascadeController";
+    private static final int DEFAULT_CACHE_SIZE = 32;
+
+    private final ChildProvider<T> childProvider;
+    private final TextProvider<T> textProvider;
+    private final List<PickerView> pickerViews = new ArrayList<>();
+    private final List<ColumnAdapter> adapters = new ArrayList<>();
+    private final LruCache<T, List<T>> childCache;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    /**
+     * 为null时在主线程中同步加载
+     */
+    private Executor executor;
+    /**
+     * 每一列的加载次数，用来丢弃过期的异步加载结果
+     */
+    private final List<Integer> loadGenerations = new ArrayList<>();
+    private OnCascadeSelectedListener<T> onCascadeSelectedListener;
+
+    public CascadeController(@NonNull ChildProvider<T> childProvider, @NonNull TextProvider<T> textProvider) {
+        this(childProvider, textProvider, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param childProvider 获取子数据的方法
+     * @param textProvider  获取显示的文本的方法
+     * @param cacheSize     最多缓存多少个父数据的子列表
+     */
+    public CascadeController(@NonNull ChildProvider<T> childProvider, @NonNull TextProvider<T> textProvider, int cacheSize) {
+        this.childProvider = childProvider;
+        this.textProvider = textProvider;
+        this.childCache = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * 添加一列，第一次添加的是最顶层的一列
+     *
+     * @param pickerView 要联动的PickerView
+     * @return this
+     */
+    public CascadeController<T> addColumn(@NonNull PickerView pickerView) {
+        ColumnAdapter adapter = new ColumnAdapter(pickerViews.size());
+        pickerViews.add(pickerView);
+        adapters.add(adapter);
+        loadGenerations.add(0);
+        pickerView.setAdapter(adapter);
+        return this;
+    }
+
+    /**
+     * 设置后，子数据在该Executor中加载，此时ChildProvider需要是线程安全的
+     *
+     * @param executor 为null时在主线程中同步加载
+     */
+    public void setExecutor(@Nullable Executor executor) {
+        this.executor = executor;
+    }
+
+    public void setOnCascadeSelectedListener(@Nullable OnCascadeSelectedListener<T> listener) {
+        this.onCascadeSelectedListener = listener;
+    }
+
+    /**
+     * 设置最顶层一列的数据，然后依次加载下面的每一列
+     *
+     * @param rootData 最顶层的数据
+     */
+    public void setRootData(@NonNull List<T> rootData) {
+        if (adapters.isEmpty()) {
+            return;
+        }
+        setColumnData(0, rootData);
+    }
+
+    /**
+     * 清空缓存的子列表，数据源发生变化时调用
+     */
+    public void clearCache() {
+        childCache.evictAll();
+    }
+
+    /**
+     * 获取某一列选中的数据
+     *
+     * @param column 列的下标，从0开始
+     * @return 选中的数据，没有数据或者正在加载时返回null
+     */
+    @Nullable
+    public T getSelectedItem(int column) {
+        ColumnAdapter adapter = adapters.get(column);
+        if (adapter.getSelectedIndex() == -1 || adapter.getDataSize() == 0) {
+            return null;
+        }
+        return adapter.getSelectedData();
+    }
+
+    private void setColumnData(int column, List<T> data) {
+        ColumnAdapter adapter = adapters.get(column);
+        adapter.setDataList(data);
+        adapter.notifyDataChanged();
+        onColumnSelected(column);
+    }
+
+    /**
+     * 某一列的选中项确定之后，加载下一列的数据
+     *
+     * @param column 选中项发生变化的列
+     */
+    private void onColumnSelected(int column) {
+        int childColumn = column + 1;
+        if (childColumn >= adapters.size()) {
+            if (onCascadeSelectedListener != null) {
+                onCascadeSelectedListener.onCascadeSelected(this);
+            }
+            return;
+        }
+        // 父数据已经变化，下面所有列之前还没有完成的加载都已经过期
+        invalidateLoads(childColumn);
+        final T parent = getSelectedItem(column);
+        if (parent == null) {
+            setColumnData(childColumn, Collections.<T>emptyList());
+            return;
+        }
+        List<T> cachedChildren = childCache.get(parent);
+        if (cachedChildren != null) {
+            setColumnData(childColumn, cachedChildren);
+            return;
+        }
+        if (executor == null) {
+            List<T> children = childProvider.getChildren(parent);
+            childCache.put(parent, children);
+            setColumnData(childColumn, children);
+            return;
+        }
+        loadChildrenAsync(childColumn, parent);
+    }
+
+    /**
+     * 使某一列以及下面所有列正在进行的加载过期
+     * 只增加子列的计数是不够的，孙列的加载完成时仍然会填充孙列，导致子列为空而孙列有数据
+     *
+     * @param fromColumn 第一个过期的列
+     */
+    private void invalidateLoads(int fromColumn) {
+        for (int i = fromColumn; i < loadGenerations.size(); i++) {
+            loadGenerations.set(i, loadGenerations.get(i) + 1);
+        }
+    }
+
+    private void loadChildrenAsync(final int childColumn, final T parent) {
+        // 下面的列马上会被清空，它们正在进行的加载也一并作废
+        invalidateLoads(childColumn);
+        final int generation = loadGenerations.get(childColumn);
+        // 加载期间清空下面的列，避免显示与父数据不匹配的子数据，空列的点击和拖动由PickerView忽略
+        for (int i = childColumn; i < adapters.size(); i++) {
+            ColumnAdapter adapter = adapters.get(i);
+            adapter.setDataList(Collections.<T>emptyList());
+            adapter.notifyDataChanged();
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<T> children = childProvider.getChildren(parent);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        childCache.put(parent, children);
+                        if (generation != loadGenerations.get(childColumn)) {
+                            Log.d(TAG, "loadChildrenAsync: 加载结果已过期");
+                            return;
+                        }
+                        setColumnData(childColumn, children);
+                    }
+                });
+            }
+        });
+    }
+
+    private class ColumnAdapter extends PickerView.Adapter<T> {
+        private final int column;
+
+        ColumnAdapter(int column) {
+            super();
+            this.column = column;
+        }
+
+        @Override
+        public String getText(T data, int position) {
+            return textProvider.getText(data);
+        }
+
+        @Override
+        public void onSelect(T data, int position) {
+            onColumnSelected(column);
+        }
+    }
+
+    public interface ChildProvider<T> {
+        /**
+         * 获取某个数据的子数据，设置了Executor时在后台线程中调用
+         *
+         * @param parent 父数据
+         * @return 子数据，没有子数据时返回空列表
+         */
+        @NonNull
+        List<T> getChildren(@NonNull T parent);
+    }
+
+    public interface TextProvider<T> {
+        /**
+         * 获取数据显示的文本
+         *
+         * @param data 数据
+         * @return 显示的文本
+         */
+        String getText(T data);
+    }
+
+    public interface OnCascadeSelectedListener<T> {
+        /**
+         * 所有列的数据都加载完成且选中项确定之后回调，可以通过{@link CascadeController#getSelectedItem(int)}获取每一列的数据
+         *
+         * @param controller 发生变化的CascadeController
+         */
+        void onCascadeSelected(CascadeController<T> controller);
+    }
+}
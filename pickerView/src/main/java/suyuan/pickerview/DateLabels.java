@@ -0,0 +1,132 @@
+package suyuan.pickerview;
+
+import androidx.annotation.NonNull;
+
+import java.text.DateFormatSymbols;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * 某个Locale下的月份和星期的名称表
+ * 每个Locale只通过DateFormatSymbols计算一次，之后在整个进程中共享，绘制时只是数组查找
+ * 星期由日期直接计算，不需要Calendar
+ *
+ * @author suyuan
+ */
+public final class DateLabels {
+    private static final HashMap<Locale, DateLabels> cache = new HashMap<>();
+    /**
+     * 下一个名称表的编号，起始值是随机的，进程重建之后同一个编号一般不会再对应到同一个Locale
+     */
+    private static int nextId = new Random().nextInt();
+
+    /**
+     * 名称表在进程内唯一的编号，可以用来组成适配器的数据版本，参考{@link PickerView.Adapter#getDataVersion()}
+     */
+    private final int id;
+    private final Locale locale;
+    /**
+     * 下标为月份减1
+     */
+    private final String[] shortMonths = new String[12];
+    private final String[] longMonths = new String[12];
+    /**
+     * 下标0为星期日，与{@link #getDayOfWeek(int, int, int)}一致
+     */
+    private final String[] shortWeekdays = new String[7];
+
+    private DateLabels(Locale locale, int id) {
+        this.locale = locale;
+        this.id = id;
+        DateFormatSymbols symbols = DateFormatSymbols.getInstance(locale);
+        String[] months = symbols.getMonths();
+        String[] shortMonthNames = symbols.getShortMonths();
+        for (int i = 0; i < 12; i++) {
+            longMonths[i] = months[i];
+            shortMonths[i] = shortMonthNames[i];
+        }
+        // DateFormatSymbols的星期从下标1（Calendar.SUNDAY）开始
+        String[] weekdays = symbols.getShortWeekdays();
+        for (int i = 0; i < 7; i++) {
+            shortWeekdays[i] = weekdays[i + 1];
+        }
+    }
+
+    /**
+     * 获取某个Locale的名称表，第一次获取时创建并缓存
+     *
+     * @param locale Locale
+     * @return 名称表
+     */
+    @NonNull
+    public static DateLabels get(@NonNull Locale locale) {
+        synchronized (cache) {
+            DateLabels labels = cache.get(locale);
+            if (labels == null) {
+                labels = new DateLabels(locale, nextId++);
+                cache.put(locale, labels);
+            }
+            return labels;
+        }
+    }
+
+    @NonNull
+    public Locale getLocale() {
+        return locale;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    /**
+     * @param month 月份，从1开始
+     * @return 月份的简称，例如Jan
+     */
+    @NonNull
+    public String getShortMonth(int month) {
+        return shortMonths[month - 1];
+    }
+
+    /**
+     * @param month 月份，从1开始
+     * @return 月份的全称，例如January
+     */
+    @NonNull
+    public String getLongMonth(int month) {
+        return longMonths[month - 1];
+    }
+
+    /**
+     * @param dayOfWeek 星期，0为星期日，6为星期六
+     * @return 星期的简称，例如Mon
+     */
+    @NonNull
+    public String getShortWeekday(int dayOfWeek) {
+        return shortWeekdays[dayOfWeek];
+    }
+
+    /**
+     * 计算某一天是星期几，1970-01-01是星期四
+     *
+     * @param year  年份
+     * @param month 月份，从1开始
+     * @param day   日，从1开始
+     * @return 0为星期日，6为星期六
+     */
+    public static int getDayOfWeek(int year, int month, int day) {
+        return getDayOfWeek(DateTimeFields.daysFromCivil(year, month, day));
+    }
+
+    /**
+     * 计算某一天是星期几，可以用于任意历法，参考{@link CalendarEngine#toEpochDay(int, int, int)}
+     *
+     * @param epochDay 距离1970-01-01的天数
+     * @return 0为星期日，6为星期六
+     */
+    public static int getDayOfWeek(long epochDay) {
+        int dayOfWeek = (int) ((epochDay + 4) % 7);
+        return dayOfWeek < 0 ? dayOfWeek + 7 : dayOfWeek;
+    }
+}
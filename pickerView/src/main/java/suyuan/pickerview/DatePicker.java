@@ -3,9 +3,13 @@ package suyuan.pickerview;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Color;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.util.SparseArray;
 import android.util.TypedValue;
+import android.view.Choreographer;
 import android.view.LayoutInflater;
 
 import androidx.annotation.NonNull;
@@ -16,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 
 
 /**
@@ -23,23 +28,92 @@ import java.util.List;
  */
 public class DatePicker extends ConstraintLayout {
     private static final String TAG = "DatePicker";
+    /**
+     * 以下是各列发生变化的标记位，同一帧内的多次变化会合并到pendingChangedFields中
+     */
+    private static final int CHANGED_YEAR = 1;
+    private static final int CHANGED_MONTH = 1 << 1;
+    private static final int CHANGED_DAY = 1 << 2;
+    private static final int CHANGED_HOUR = 1 << 3;
+    private static final int CHANGED_MINUTE = 1 << 4;
+    /**
+     * 月份显示为数字，例如1
+     */
+    public static final int MONTH_LABEL_NUMBER = 0;
+    /**
+     * 月份显示为当前Locale的简称，例如Jan
+     */
+    public static final int MONTH_LABEL_SHORT = 1;
+    /**
+     * 月份显示为当前Locale的全称，例如January
+     */
+    public static final int MONTH_LABEL_LONG = 2;
     private PickerView yearPicker;
     private PickerView monthPicker;
     private PickerView dayPicker;
     private PickerView hourPicker;
     private PickerView minutePicker;
+    private PickerView.Adapter<Integer> monthAdapter;
     private PickerView.Adapter<Integer> dayAdapter;
+    /**
+     * 1到31的完整天数列表，更新dayPicker时只取其前endDay个元素，避免每次重新创建列表
+     */
+    private final List<Integer> allDayList = new ArrayList<>();
+    /**
+     * 1到13的完整月份序号列表，有闰月的年份取全部13个
+     */
+    private final List<Integer> allMonthList = new ArrayList<>();
+    /**
+     * 年月日使用的历法，默认为公历
+     */
+    private CalendarEngine calendarEngine = GregorianCalendarEngine.getInstance();
+    /**
+     * monthPicker当前显示的是哪一年的闰月，0为没有闰月
+     */
+    private int displayedLeapMonth = 0;
+    /**
+     * 历法转换时复用的数组
+     */
+    private final int[] convertedDate = new int[3];
 
     private boolean isShowDate;
     private boolean isShowTime;
 
+    /**
+     * 配置的年份范围，切换历法时保持不变
+     */
     private int startYear = 1970;
     private int endYear = 2050;
+    /**
+     * 实际显示的年份范围，为配置的范围与当前历法支持的范围的交集
+     */
+    private int effectiveStartYear = 1970;
+    private int effectiveEndYear = 2050;
 
     private int selectedYear = 1970;
+    /**
+     * 选中的月份在该年中的序号，从1开始，农历的闰月也占一个序号
+     */
     private int selectedMonth = 1;
 
     private int marginInner = 30;
+    /**
+     * 月份的显示方式，MONTH_LABEL_XXX
+     */
+    private int monthLabelMode = MONTH_LABEL_NUMBER;
+    /**
+     * 是否在天数前显示星期，例如Mon 12
+     */
+    private boolean isWeekdayShown = false;
+    /**
+     * 月份和星期名称使用的Locale，为null时使用默认的Locale
+     */
+    private Locale labelLocale;
+    private DateLabels dateLabels;
+    /**
+     * 选中的年月中1号是星期几，其他天数的星期由它推算
+     */
+    private int firstDayOfWeek;
 
     private int selectedTextSize = 0;
     private int unselectedTextSize = 0;
@@ -62,6 +136,44 @@ public class DatePicker extends ConstraintLayout {
     private int selectedTextColor;
     private int unselectedTextColor;
 
+    /**
+     * 当前帧内尚未派发的变化，由各列的CHANGED_XXX标记位组成
+     */
+    private int pendingChangedFields = 0;
+    /**
+     * 数据已经更新但是还没有重新测量的列，CHANGED_MONTH和CHANGED_DAY，与回调一起在下一帧处理
+     */
+    private int pendingRemeasureFields = 0;
+    /**
+     * 是否已经向Choreographer注册了下一帧的回调
+     */
+    private boolean isChangeDispatchScheduled = false;
+    private OnDateTimeChangedListener onDateTimeChangedListener;
+    /**
+     * 格式化和获取Date时复用的对象
+     */
+    private final DateTimeFields snapshotFields = new DateTimeFields();
+    private final TextBuffer stringBuffer = new TextBuffer();
+    /**
+     * 月份和天数的适配器在getText中复用的缓冲区，只在主线程中使用
+     */
+    private final TextBuffer labelBuffer = new TextBuffer();
+    private Calendar calendar;
+    /**
+     * 各列共用的动画组，同时回弹的列由同一个帧回调驱动并在同一帧结束
+     */
+    private final PickerAnimationGroup animationGroup = new PickerAnimationGroup(true);
+    /**
+     * 在下一帧统一处理本帧内所有列的变化：重新测量数据变化的列，再派发一次合并后的事件
+     */
+    private final Choreographer.FrameCallback dispatchChangeCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            isChangeDispatchScheduled = false;
+            dispatchPendingChanges();
+        }
+    };
+
     public DatePicker(@NonNull Context context) {
         this(context, null);
     }
@@ -114,6 +226,8 @@ public class DatePicker extends ConstraintLayout {
     }
 
     private void setPickerAttribute(PickerView pickerView) {
+        // 所有属性只生效一次，distance和文字样式只计算一次，最多一次布局和重绘
+        pickerView.beginUpdate();
         pickerView.setDataRecycled(isDataRecycled);
         pickerView.setSelectedTextSize(selectedTextSize);
         pickerView.setUnselectedTextSize(unselectedTextSize);
@@ -123,6 +237,8 @@ public class DatePicker extends ConstraintLayout {
         pickerView.setUnselectedTextColorInt(unselectedTextColor);
         pickerView.setTextPadding(textPadding);
         pickerView.setSpeed(speed);
+        pickerView.setAnimationGroup(animationGroup);
+        pickerView.endUpdate();
     }
 
     private void getAttribute(Context context, AttributeSet attrs, int defStyleAttr) {
@@ -135,6 +251,8 @@ public class DatePicker extends ConstraintLayout {
         marginInner = typedArray.getDimensionPixelSize(R.styleable.DatePicker_margin_inner, 30);
         isShowDate = typedArray.getBoolean(R.styleable.DatePicker_showDate, true);
         isShowTime = typedArray.getBoolean(R.styleable.DatePicker_showTime, true);
+        monthLabelMode = typedArray.getInt(R.styleable.DatePicker_month_label, MONTH_LABEL_NUMBER);
+        isWeekdayShown = typedArray.getBoolean(R.styleable.DatePicker_show_weekday, false);
         //以下是给每个PickerView配置的属性
         int defaultSelectedTextSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 16f, context.getResources().getDisplayMetrics());
         int defaultUnselectedTextSize = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 12f, context.getResources().getDisplayMetrics());
@@ -152,12 +270,21 @@ public class DatePicker extends ConstraintLayout {
 
     }
 
+    /**
+     * 根据配置的年份范围和当前的历法计算实际显示的年份范围
+     */
+    private void updateEffectiveYearRange() {
+        effectiveStartYear = Math.max(startYear, calendarEngine.getMinYear());
+        effectiveEndYear = Math.max(Math.min(endYear, calendarEngine.getMaxYear()), effectiveStartYear);
+    }
+
     private void setDateData() {
         List<Integer> yearList = new ArrayList<>();
-        List<Integer> monthList = new ArrayList<>();
-        List<Integer> dayList = new ArrayList<>();
+        List<Integer> monthList;
+        List<Integer> dayList;
+        updateEffectiveYearRange();
         //添加年份数据
-        for (int i = startYear; i <= endYear; i++) {
+        for (int i = effectiveStartYear; i <= effectiveEndYear; i++) {
             yearList.add(i);
         }
         int selectedYearIndex = yearList.indexOf(selectedYear);
@@ -168,43 +295,96 @@ public class DatePicker extends ConstraintLayout {
                 return data.toString();
             }
 
+            @Override
+            public void writeText(int position, @NonNull TextBuffer buffer) {
+                buffer.appendInt(effectiveStartYear + position);
+            }
+
+            @Override
+            public long getDataVersion() {
+                return (long) effectiveStartYear << 32 | effectiveEndYear;
+            }
+
             //每次选中的时候，记录下来当前选中的year和month且同时修改dayPicker的数据
             @Override
             public void onSelect(Integer data, int position) {
                 selectedYear = data;
-                updateDayPicker();
+                notifyFieldChanged(CHANGED_YEAR);
             }
         });
-        //添加月份数据
-        for (int i = 1; i <= 12; i++) {
-            monthList.add(i);
+        //添加月份数据，月份和天数的完整列表只创建一次，切换历法时复用
+        if (allMonthList.isEmpty()) {
+            for (int i = 1; i <= 13; i++) {
+                allMonthList.add(i);
+            }
+            for (int i = 1; i <= 31; i++) {
+                allDayList.add(i);
+            }
         }
-        monthPicker.setAdapter(new PickerView.Adapter<Integer>(monthList, selectedMonth - 1) {
+        displayedLeapMonth = calendarEngine.getLeapMonth(selectedYear);
+        monthList = allMonthList.subList(0, calendarEngine.getMonthCount(selectedYear));
+        monthAdapter = new PickerView.Adapter<Integer>(monthList, selectedMonth - 1) {
 
             @Override
             public String getText(Integer data, int position) {
-                return data.toString();
+                if (calendarEngine == GregorianCalendarEngine.getInstance() && monthLabelMode != MONTH_LABEL_NUMBER) {
+                    // 公历的月份名称已经在名称表中，直接返回
+                    return monthLabelMode == MONTH_LABEL_SHORT ? getLabels().getShortMonth(position + 1) : getLabels().getLongMonth(position + 1);
+                }
+                return writeMonthText(position, labelBuffer.clear()).toString();
+            }
+
+            @Override
+            public void writeText(int position, @NonNull TextBuffer buffer) {
+                writeMonthText(position, buffer);
+            }
+
+            @Override
+            public long getDataVersion() {
+                if (calendarEngine != GregorianCalendarEngine.getInstance()) {
+                    // 其他历法的月份名称与年份有关
+                    return DATA_VERSION_UNKNOWN;
+                }
+                if (monthLabelMode == MONTH_LABEL_NUMBER) {
+                    return 12;
+                }
+                return (long) getLabels().getId() << 32 | monthLabelMode << 8 | 12;
             }
 
             @Override
             public void onSelect(Integer data, int position) {
                 selectedMonth = data;
-                updateDayPicker();
+                notifyFieldChanged(CHANGED_MONTH);
             }
-        });
-        //添加1月的数据，因为默认显示的是1月
-        for (int i = 1; i <= 31; i++) {
-            dayList.add(i);
-        }
+        };
+        monthPicker.setAdapter(monthAdapter);
+        dayList = allDayList.subList(0, calendarEngine.getDayCount(selectedYear, selectedMonth - 1));
+        firstDayOfWeek = DateLabels.getDayOfWeek(calendarEngine.toEpochDay(selectedYear, selectedMonth - 1, 1));
         dayAdapter = new PickerView.Adapter<Integer>(dayList) {
             @Override
             public String getText(Integer data, int position) {
-                return data.toString();
+                return writeDayText(data, labelBuffer.clear()).toString();
             }
 
             @Override
-            public void onSelect(Integer data, int position) {
+            public void writeText(int position, @NonNull TextBuffer buffer) {
+                writeDayText(position + 1, buffer);
+            }
 
+            @Override
+            public long getDataVersion() {
+                if (calendarEngine != GregorianCalendarEngine.getInstance()) {
+                    return DATA_VERSION_UNKNOWN;
+                }
+                if (!isWeekdayShown) {
+                    return getDataSize();
+                }
+                return (long) getLabels().getId() << 32 | (firstDayOfWeek + 1) << 8 | getDataSize();
+            }
+
+            @Override
+            public void onSelect(Integer data, int position) {
+                notifyFieldChanged(CHANGED_DAY);
             }
         };
         dayPicker.setAdapter(dayAdapter);
@@ -230,8 +410,18 @@ public class DatePicker extends ConstraintLayout {
             }
 
             @Override
-            public void onSelect(String data, int position) {
+            public void writeText(int position, @NonNull TextBuffer buffer) {
+                buffer.appendPaddedInt(position, 2);
+            }
 
+            @Override
+            public long getDataVersion() {
+                return 24;
+            }
+
+            @Override
+            public void onSelect(String data, int position) {
+                notifyFieldChanged(CHANGED_HOUR);
             }
         });
         for (int i = 0; i < 60; i++) {
@@ -248,107 +438,395 @@ public class DatePicker extends ConstraintLayout {
             }
 
             @Override
-            public void onSelect(String data, int position) {
+            public void writeText(int position, @NonNull TextBuffer buffer) {
+                buffer.appendPaddedInt(position, 2);
+            }
+
+            @Override
+            public long getDataVersion() {
+                return 60;
+            }
 
+            @Override
+            public void onSelect(String data, int position) {
+                notifyFieldChanged(CHANGED_MINUTE);
             }
         });
     }
 
     /**
-     * 更新dayPicker的数据
+     * 写入月份的文本，公历按照monthLabelMode，其他历法由历法决定
+     *
+     * @param monthIndex 月份在该年中的序号，从0开始
+     * @param buffer     文本缓冲区
+     * @return buffer
      */
-    private void updateDayPicker() {
-        Log.d(TAG, "updateDayPicker: 更新视图");
-        int startDay = 1;
-        int endDay;
-        switch (selectedMonth) {
-            case 1:
-            case 3:
-            case 5:
-            case 7:
-            case 8:
-            case 10:
-            case 12:
-                endDay = 31;
-                break;
-            case 2:
-                endDay = 28;
-                break;
+    private TextBuffer writeMonthText(int monthIndex, TextBuffer buffer) {
+        if (calendarEngine != GregorianCalendarEngine.getInstance()) {
+            calendarEngine.writeMonthText(selectedYear, monthIndex, buffer);
+            return buffer;
+        }
+        int month = monthIndex + 1;
+        switch (monthLabelMode) {
+            case MONTH_LABEL_SHORT:
+                return buffer.append(getLabels().getShortMonth(month));
+            case MONTH_LABEL_LONG:
+                return buffer.append(getLabels().getLongMonth(month));
             default:
-                endDay = 30;
+                return buffer.appendInt(month);
+        }
+    }
+
+    /**
+     * 写入天数的文本，显示星期时星期由1号的星期推算，不需要Calendar
+     *
+     * @param day    日，从1开始
+     * @param buffer 文本缓冲区
+     * @return buffer
+     */
+    private TextBuffer writeDayText(int day, TextBuffer buffer) {
+        if (isWeekdayShown) {
+            buffer.append(getLabels().getShortWeekday((firstDayOfWeek + day - 1) % 7)).append(' ');
+        }
+        calendarEngine.writeDayText(selectedYear, selectedMonth - 1, day, buffer);
+        return buffer;
+    }
 
+    @NonNull
+    private DateLabels getLabels() {
+        if (dateLabels == null) {
+            dateLabels = DateLabels.get(labelLocale == null ? Locale.getDefault() : labelLocale);
         }
-        if (selectedMonth == 2) {
-            //判断闰年, 闰年2月为29
-            if (selectedYear % 100 == 0 && selectedYear % 400 == 0 || selectedYear % 4 == 0 && selectedYear % 100 != 0) {
-                endDay = 29;
-            }
+        return dateLabels;
+    }
+
+    /**
+     * 设置年月日使用的历法，选中的日期会转换为新历法中的同一天
+     * 显示的年份范围会限制在历法支持的范围内，配置的范围不会被修改，切换回来后恢复；getYear、getMonth、getDay和OnDateTimeChangedListener得到的是该历法中的值，
+     * getDateTimeFields、getEpochMinutes、getDate等仍然是公历的日期
+     *
+     * @param calendarEngine 历法，例如{@link LunarCalendarEngine#getInstance()}
+     */
+    public void setCalendarEngine(@NonNull CalendarEngine calendarEngine) {
+        if (this.calendarEngine == calendarEngine) {
+            return;
+        }
+        long epochDay = getEpochDay();
+        this.calendarEngine = calendarEngine;
+        updateEffectiveYearRange();
+        long minEpochDay = calendarEngine.toEpochDay(effectiveStartYear, 0, 1);
+        int lastMonthIndex = calendarEngine.getMonthCount(effectiveEndYear) - 1;
+        long maxEpochDay = calendarEngine.toEpochDay(effectiveEndYear, lastMonthIndex, calendarEngine.getDayCount(effectiveEndYear, lastMonthIndex));
+        calendarEngine.fromEpochDay(Math.min(Math.max(epochDay, minEpochDay), maxEpochDay), convertedDate);
+        selectedYear = convertedDate[CalendarEngine.YEAR];
+        selectedMonth = convertedDate[CalendarEngine.MONTH_INDEX] + 1;
+        setDateData();
+        dayAdapter.setSelectedIndex(convertedDate[CalendarEngine.DAY] - 1);
+        notifyFieldChanged(CHANGED_YEAR | CHANGED_MONTH | CHANGED_DAY);
+    }
+
+    @NonNull
+    public CalendarEngine getCalendarEngine() {
+        return calendarEngine;
+    }
+
+    /**
+     * 设置月份的显示方式，只对公历有效
+     *
+     * @param monthLabelMode {@link #MONTH_LABEL_NUMBER}、{@link #MONTH_LABEL_SHORT}或{@link #MONTH_LABEL_LONG}
+     */
+    public void setMonthLabelMode(int monthLabelMode) {
+        if (this.monthLabelMode == monthLabelMode) {
+            return;
         }
-        List<Integer> dayList = new ArrayList<>();
-        for (int i = startDay; i <= endDay; i++) {
-            dayList.add(i);
+        this.monthLabelMode = monthLabelMode;
+        monthAdapter.notifyDataChanged();
+    }
+
+    public int getMonthLabelMode() {
+        return monthLabelMode;
+    }
+
+    /**
+     * 设置是否在天数前显示星期，例如Mon 12
+     *
+     * @param isWeekdayShown 是否显示星期
+     */
+    public void setWeekdayShown(boolean isWeekdayShown) {
+        if (this.isWeekdayShown == isWeekdayShown) {
+            return;
         }
-        dayAdapter.setDataList(dayList);
-        dayPicker.reMeasure();
+        this.isWeekdayShown = isWeekdayShown;
+        dayAdapter.notifyDataChanged();
+    }
+
+    public boolean isWeekdayShown() {
+        return isWeekdayShown;
     }
 
+    /**
+     * 设置月份和星期名称使用的Locale，每个Locale的名称只会计算一次
+     *
+     * @param locale Locale，为null时使用默认的Locale
+     */
+    public void setLabelLocale(@Nullable Locale locale) {
+        labelLocale = locale;
+        dateLabels = null;
+        if (monthLabelMode != MONTH_LABEL_NUMBER) {
+            monthAdapter.notifyDataChanged();
+        }
+        if (isWeekdayShown) {
+            dayAdapter.notifyDataChanged();
+        }
+    }
+
+    /**
+     * 记录某一列发生了变化
+     * 年或月变化时立即更新月份和天数的数据并限制选中的天数，保证任何时候通过getter读到的都是合法的日期，
+     * 重新测量和回调在下一帧统一处理，同一帧内的多次变化（例如连续调用setSelectedYear和setSelectedMonth）只会测量一次、回调一次
+     *
+     * @param changedField 发生变化的列，CHANGED_XXX
+     */
+    private void notifyFieldChanged(int changedField) {
+        if ((changedField & CHANGED_YEAR) != 0) {
+            updateMonthPicker();
+        }
+        if ((changedField & (CHANGED_YEAR | CHANGED_MONTH)) != 0) {
+            updateDayPicker();
+        }
+        pendingChangedFields |= changedField;
+        scheduleChangeDispatch();
+    }
+
+    private void scheduleChangeDispatch() {
+        if (!isChangeDispatchScheduled) {
+            isChangeDispatchScheduled = true;
+            Choreographer.getInstance().postFrameCallback(dispatchChangeCallback);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // 离开窗口时没有处理的变化在重新添加到窗口后继续处理
+        if (pendingChangedFields != 0 || pendingRemeasureFields != 0) {
+            scheduleChangeDispatch();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (isChangeDispatchScheduled) {
+            isChangeDispatchScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(dispatchChangeCallback);
+        }
+    }
+
+    /**
+     * 处理合并后的变化：重新测量数据变化过的列，然后派发一次完整的日期时间
+     */
+    private void dispatchPendingChanges() {
+        remeasurePendingPickers();
+        int changedFields = pendingChangedFields;
+        pendingChangedFields = 0;
+        if (changedFields == 0) {
+            return;
+        }
+        if (onDateTimeChangedListener != null) {
+            onDateTimeChangedListener.onDateTimeChanged(this, getYear(), getMonth(), getDay(), getHour(), getMinute());
+        }
+    }
+
+    /**
+     * 更新monthPicker的数据，只有闰月不同的年份之间切换时才会变化
+     * 切换后保持相同的月份，例如从闰四月所在的年份切换到没有闰月的年份时，五月仍然是五月，闰四月变为四月
+     */
+    private void updateMonthPicker() {
+        int leapMonth = calendarEngine.getLeapMonth(selectedYear);
+        if (leapMonth == displayedLeapMonth) {
+            return;
+        }
+        int oldIndex = selectedMonth - 1;
+        boolean isLeapMonth = displayedLeapMonth != 0 && oldIndex == displayedLeapMonth;
+        int month = displayedLeapMonth != 0 && oldIndex >= displayedLeapMonth ? oldIndex : oldIndex + 1;
+        setMonthList();
+        int monthIndex = calendarEngine.getMonthIndex(selectedYear, month, isLeapMonth);
+        monthAdapter.setSelectedIndex(monthIndex);
+        selectedMonth = monthIndex + 1;
+    }
+
+    /**
+     * 按照selectedYear重新设置monthPicker的数据
+     */
+    private void setMonthList() {
+        displayedLeapMonth = calendarEngine.getLeapMonth(selectedYear);
+        monthAdapter.setDataList(allMonthList.subList(0, calendarEngine.getMonthCount(selectedYear)));
+        pendingRemeasureFields |= CHANGED_MONTH;
+        monthPicker.invalidate();
+    }
+
+    /**
+     * 重新测量数据发生过变化的列
+     */
+    private void remeasurePendingPickers() {
+        int fields = pendingRemeasureFields;
+        pendingRemeasureFields = 0;
+        if ((fields & CHANGED_MONTH) != 0) {
+            monthPicker.reMeasure();
+        }
+        if ((fields & CHANGED_DAY) != 0) {
+            dayPicker.reMeasure();
+        }
+    }
+
+    /**
+     * 更新dayPicker的数据
+     * 天数没有变化时直接返回，否则尽量保持原本选中的天数，超出范围时选中最后一天
+     * 显示星期时，天数相同但是1号的星期变化了也需要重新绘制
+     */
+    private void updateDayPicker() {
+        int endDay = calendarEngine.getDayCount(selectedYear, selectedMonth - 1);
+        int dayOfWeek = DateLabels.getDayOfWeek(calendarEngine.toEpochDay(selectedYear, selectedMonth - 1, 1));
+        boolean isWeekdayChanged = dayOfWeek != firstDayOfWeek;
+        firstDayOfWeek = dayOfWeek;
+        if (endDay == dayAdapter.getDataSize()) {
+            if (isWeekdayShown && isWeekdayChanged || calendarEngine != GregorianCalendarEngine.getInstance()) {
+                // 其他历法的日期名称可能与年月有关
+                dayAdapter.notifyDataChanged();
+            }
+            return;
+        }
+        Log.d(TAG, "updateDayPicker: 更新视图");
+        int selectedDayIndex = Math.min(dayAdapter.getSelectedIndex(), endDay - 1);
+        dayAdapter.setDataList(allDayList.subList(0, endDay));
+        dayAdapter.setSelectedIndex(selectedDayIndex);
+        pendingRemeasureFields |= CHANGED_DAY;
+        // 立即按照新的数据重绘，宽度的变化在下一帧测量
+        dayPicker.invalidate();
+    }
+
+    /**
+     * 以下的getter都直接由选中的位置计算得出，不会拆箱或者解析字符串
+     */
     public int getYear() {
-        return (int) yearPicker.getSelectedData();
+        return effectiveStartYear + yearPicker.getSelectedIndex();
     }
 
+    /**
+     * 获取选中的月份，农历的闰月与它之前的月份相同，通过{@link #isLeapMonth()}区分
+     *
+     * @return 月份，从1开始
+     */
     public int getMonth() {
-        return (int) monthPicker.getSelectedData();
+        return calendarEngine.getMonth(getYear(), monthPicker.getSelectedIndex());
+    }
+
+    /**
+     * @return 选中的月份是否是闰月，公历总是false
+     */
+    public boolean isLeapMonth() {
+        return calendarEngine.isLeapMonth(getYear(), monthPicker.getSelectedIndex());
     }
 
     public int getDay() {
-        return (int) dayPicker.getSelectedData();
+        return dayPicker.getSelectedIndex() + 1;
     }
 
     public int getHour() {
-        return Integer.parseInt((String) hourPicker.getSelectedData());
+        return hourPicker.getSelectedIndex();
     }
 
     public int getMinute() {
-        return Integer.parseInt((String) minutePicker.getSelectedData());
+        return minutePicker.getSelectedIndex();
     }
 
+    /**
+     * 一次性获取所有选中的值，不会创建任何对象，适合在滚动进度的回调中频繁调用
+     * 使用其他历法时会转换为公历的日期
+     *
+     * @param fields 由调用方复用的容器
+     * @return fields
+     */
+    @NonNull
+    public DateTimeFields getDateTimeFields(@NonNull DateTimeFields fields) {
+        if (calendarEngine == GregorianCalendarEngine.getInstance()) {
+            return fields.set(getYear(), getMonth(), getDay(), getHour(), getMinute());
+        }
+        GregorianCalendarEngine.getInstance().fromEpochDay(getEpochDay(), convertedDate);
+        return fields.set(convertedDate[CalendarEngine.YEAR], convertedDate[CalendarEngine.MONTH_INDEX] + 1,
+                convertedDate[CalendarEngine.DAY], getHour(), getMinute());
+    }
+
+    /**
+     * @return 选中的日期距离公历1970-01-01的天数
+     */
+    private long getEpochDay() {
+        return calendarEngine.toEpochDay(getYear(), monthPicker.getSelectedIndex(), getDay());
+    }
+
+    /**
+     * 获取选中的日期时间距离1970-01-01 00:00的分钟数，日期时间被看作UTC时间，参考{@link DateTimeFields#toEpochMinutes()}
+     *
+     * @return epoch分钟数
+     */
+    public long getEpochMinutes() {
+        return getEpochDay() * 1440L + getHour() * 60L + getMinute();
+    }
+
+    /**
+     * 按照yyyy-MM-dd HH:mm的格式将选中的日期时间写入缓冲区，不会创建String
+     *
+     * @param buffer 文本缓冲区，写入前不会清空
+     * @return buffer
+     */
+    @NonNull
+    public TextBuffer formatDateTime(@NonNull TextBuffer buffer) {
+        return getDateTimeFields(snapshotFields).formatDateTime(buffer);
+    }
+
+    /**
+     * 按照yyyy-MM-dd的格式将选中的日期写入缓冲区，不会创建String
+     *
+     * @param buffer 文本缓冲区，写入前不会清空
+     * @return buffer
+     */
+    @NonNull
+    public TextBuffer formatDate(@NonNull TextBuffer buffer) {
+        return getDateTimeFields(snapshotFields).formatDate(buffer);
+    }
 
     public Date getDate() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(getYear(), getMonth() - 1, getDay(), 0, 0, 0);
+        DateTimeFields fields = getDateTimeFields(snapshotFields);
+        Calendar calendar = getCalendar();
+        calendar.set(fields.year, fields.month - 1, fields.day, 0, 0, 0);
         return calendar.getTime();
     }
 
     public Date getDateTime() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(getYear(), getMonth() - 1, getDay(), getHour(), getMinute(), 0);
+        DateTimeFields fields = getDateTimeFields(snapshotFields);
+        Calendar calendar = getCalendar();
+        calendar.set(fields.year, fields.month - 1, fields.day, fields.hour, fields.minute, 0);
         return calendar.getTime();
     }
 
-    public String getDateTimeString() {
-        String dateTimeString = getDateString() + " ";
-        if (getHour() < 10) {
-            dateTimeString += "0";
-        }
-        dateTimeString += getHour() + ":";
-        if (getMinute() < 10) {
-            dateTimeString += "0";
+    /**
+     * 复用同一个Calendar，每次使用前清空所有字段
+     */
+    private Calendar getCalendar() {
+        if (calendar == null) {
+            calendar = Calendar.getInstance();
         }
-        dateTimeString += getMinute();
-        return dateTimeString;
+        calendar.clear();
+        return calendar;
+    }
+
+    public String getDateTimeString() {
+        return formatDateTime(stringBuffer.clear()).toString();
     }
 
     public String getDateString() {
-        String dateString = getYear() + "-";
-        if (getMonth() < 10) {
-            dateString += "0";
-        }
-        dateString += getMonth() + "-";
-        if (getDay() < 10) {
-            dateString += "0";
-        }
-        dateString += getDay();
-        return dateString;
+        return formatDate(stringBuffer.clear()).toString();
     }
 
     /**
@@ -358,6 +836,8 @@ public class DatePicker extends ConstraintLayout {
      */
     public void setSelectedDay(int day) {
         dayPicker.getAdapter().setSelectedIndex(day);
+        dayPicker.invalidate();
+        notifyFieldChanged(CHANGED_DAY);
     }
 
     /**
@@ -367,6 +847,8 @@ public class DatePicker extends ConstraintLayout {
      */
     public void setSelectedHour(int hour) {
         hourPicker.getAdapter().setSelectedIndex(hour);
+        hourPicker.invalidate();
+        notifyFieldChanged(CHANGED_HOUR);
     }
 
     /**
@@ -376,16 +858,152 @@ public class DatePicker extends ConstraintLayout {
      */
     public void setSelectedMinute(int minute) {
         minutePicker.getAdapter().setSelectedIndex(minute);
+        minutePicker.invalidate();
+        notifyFieldChanged(CHANGED_MINUTE);
     }
 
     public void setSelectedMonth(int selectedMonth) {
         this.selectedMonth = selectedMonth;
         monthPicker.getAdapter().setSelectedIndex(selectedMonth - 1);
+        monthPicker.invalidate();
+        notifyFieldChanged(CHANGED_MONTH);
     }
 
     public void setSelectedYear(int selectedYear) {
         this.selectedYear = selectedYear;
-        yearPicker.getAdapter().setSelectedIndex(selectedYear - startYear);
+        yearPicker.getAdapter().setSelectedIndex(selectedYear - effectiveStartYear);
+        yearPicker.invalidate();
+        notifyFieldChanged(CHANGED_YEAR);
+    }
+
+    /**
+     * 各列PickerView的状态由DatePicker统一保存，避免同一个布局中有多个DatePicker时子View的id冲突
+     */
+    @Override
+    protected void dispatchSaveInstanceState(SparseArray<Parcelable> container) {
+        dispatchFreezeSelfOnly(container);
+    }
+
+    @Override
+    protected void dispatchRestoreInstanceState(SparseArray<Parcelable> container) {
+        dispatchThawSelfOnly(container);
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState savedState = new SavedState(super.onSaveInstanceState());
+        savedState.selectedYear = selectedYear;
+        savedState.selectedMonth = selectedMonth;
+        savedState.yearState = yearPicker.onSaveInstanceState();
+        savedState.monthState = monthPicker.onSaveInstanceState();
+        savedState.dayState = dayPicker.onSaveInstanceState();
+        savedState.hourState = hourPicker.onSaveInstanceState();
+        savedState.minuteState = minutePicker.onSaveInstanceState();
+        return savedState;
+    }
+
+    /**
+     * 恢复状态时先根据年月同步更新dayPicker的数据，使得day的状态可以直接恢复，第一帧就显示正确的选中项
+     * 恢复状态不会触发OnDateTimeChangedListener
+     */
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        selectedYear = savedState.selectedYear;
+        selectedMonth = savedState.selectedMonth;
+        yearPicker.onRestoreInstanceState(savedState.yearState);
+        if (calendarEngine.getLeapMonth(selectedYear) != displayedLeapMonth) {
+            setMonthList();
+        }
+        monthPicker.onRestoreInstanceState(savedState.monthState);
+        updateDayPicker();
+        remeasurePendingPickers();
+        dayPicker.onRestoreInstanceState(savedState.dayState);
+        hourPicker.onRestoreInstanceState(savedState.hourState);
+        minutePicker.onRestoreInstanceState(savedState.minuteState);
+    }
+
+    static class SavedState extends BaseSavedState {
+        int selectedYear;
+        int selectedMonth;
+        Parcelable yearState;
+        Parcelable monthState;
+        Parcelable dayState;
+        Parcelable hourState;
+        Parcelable minuteState;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        /**
+         * BaseSavedState(Parcel, ClassLoader)在API 24才加入，这里只使用super(in)，
+         * 子控件的状态是PickerView.SavedState，使用它的ClassLoader读取
+         */
+        private SavedState(Parcel in) {
+            super(in);
+            ClassLoader loader = PickerView.SavedState.class.getClassLoader();
+            selectedYear = in.readInt();
+            selectedMonth = in.readInt();
+            yearState = in.readParcelable(loader);
+            monthState = in.readParcelable(loader);
+            dayState = in.readParcelable(loader);
+            hourState = in.readParcelable(loader);
+            minuteState = in.readParcelable(loader);
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(selectedYear);
+            out.writeInt(selectedMonth);
+            out.writeParcelable(yearState, flags);
+            out.writeParcelable(monthState, flags);
+            out.writeParcelable(dayState, flags);
+            out.writeParcelable(hourState, flags);
+            out.writeParcelable(minuteState, flags);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    /**
+     * 设置日期时间变化的监听器
+     * 同一帧内各列的变化会被合并，监听器只会收到一次包含完整日期时间的回调
+     *
+     * @param listener 监听器，传入null则取消监听
+     */
+    public void setOnDateTimeChangedListener(OnDateTimeChangedListener listener) {
+        this.onDateTimeChangedListener = listener;
+    }
+
+    public interface OnDateTimeChangedListener {
+        /**
+         * 日期时间发生变化时回调，每一帧最多回调一次
+         *
+         * @param datePicker 发生变化的DatePicker
+         * @param year       年
+         * @param month      月，从1开始
+         * @param day        日，从1开始
+         * @param hour       时，0到23
+         * @param minute     分，0到59
+         */
+        void onDateTimeChanged(DatePicker datePicker, int year, int month, int day, int hour, int minute);
     }
 
 }
@@ -0,0 +1,168 @@
+package suyuan.pickerview;
+
+import androidx.annotation.NonNull;
+
+/**
+ * DatePicker选中值的容器，由调用方创建并复用，通过{@link DatePicker#getDateTimeFields(DateTimeFields)}一次性写入所有字段
+ * 字段是公开的，读取时没有任何开销；与epoch分钟的互相转换只使用整数运算，不依赖Calendar和时区
+ *
+ * @author suyuan
+ */
+public final class DateTimeFields {
+    public int year;
+    /**
+     * 月份，从1开始
+     */
+    public int month;
+    /**
+     * 天数，从1开始
+     */
+    public int day;
+    public int hour;
+    public int minute;
+
+    public DateTimeFields set(int year, int month, int day, int hour, int minute) {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.hour = hour;
+        this.minute = minute;
+        return this;
+    }
+
+    /**
+     * 将日期时间看作UTC时间，转换为距离1970-01-01 00:00的分钟数
+     * 需要得到真实的时间戳时，减去所在时区的偏移即可
+     *
+     * @return epoch分钟数
+     */
+    public long toEpochMinutes() {
+        return daysFromCivil(year, month, day) * 1440L + hour * 60L + minute;
+    }
+
+    /**
+     * {@link #toEpochMinutes()}的逆运算
+     *
+     * @param epochMinutes epoch分钟数
+     * @return this
+     */
+    public DateTimeFields setEpochMinutes(long epochMinutes) {
+        long days = floorDiv(epochMinutes, 1440L);
+        int minuteOfDay = (int) (epochMinutes - days * 1440L);
+        hour = minuteOfDay / 60;
+        minute = minuteOfDay % 60;
+        long date = civilFromDays(days);
+        year = packedYear(date);
+        month = packedMonth(date);
+        day = packedDay(date);
+        return this;
+    }
+
+    /**
+     * {@link #daysFromCivil(int, int, int)}的逆运算，为了不创建对象，年月日打包在一个long中返回，
+     * 通过{@link #packedYear(long)}、{@link #packedMonth(long)}和{@link #packedDay(long)}读取
+     *
+     * @param days 距离1970-01-01的天数
+     * @return 打包后的年月日
+     */
+    static long civilFromDays(long days) {
+        // 以3月1日为一年的开始，闰日位于一年的最后，每400年为一个周期
+        long z = days + 719468;
+        long era = floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthPosition = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * monthPosition + 2) / 5 + 1;
+        long month = monthPosition < 10 ? monthPosition + 3 : monthPosition - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 16 | month << 8 | day;
+    }
+
+    static int packedYear(long date) {
+        return (int) (date >> 16);
+    }
+
+    static int packedMonth(long date) {
+        return (int) (date >> 8 & 0xFF);
+    }
+
+    static int packedDay(long date) {
+        return (int) (date & 0xFF);
+    }
+
+    /**
+     * 计算某一天距离1970-01-01的天数，适用于公历的任意日期
+     *
+     * @param year  年
+     * @param month 月，从1开始
+     * @param day   日，从1开始
+     * @return 天数，1970年之前为负数
+     */
+    public static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * 向下取整的除法，Math.floorDiv需要API 24
+     */
+    private static long floorDiv(long x, long y) {
+        long quotient = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            quotient--;
+        }
+        return quotient;
+    }
+
+    /**
+     * 按照yyyy-MM-dd的格式写入日期
+     *
+     * @param buffer 文本缓冲区
+     * @return buffer
+     */
+    public TextBuffer formatDate(@NonNull TextBuffer buffer) {
+        return buffer.appendInt(year).append('-')
+                .appendPaddedInt(month, 2).append('-')
+                .appendPaddedInt(day, 2);
+    }
+
+    /**
+     * 按照yyyy-MM-dd HH:mm的格式写入日期时间
+     *
+     * @param buffer 文本缓冲区
+     * @return buffer
+     */
+    public TextBuffer formatDateTime(@NonNull TextBuffer buffer) {
+        return formatDate(buffer).append(' ')
+                .appendPaddedInt(hour, 2).append(':')
+                .appendPaddedInt(minute, 2);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DateTimeFields)) {
+            return false;
+        }
+        DateTimeFields that = (DateTimeFields) o;
+        return year == that.year && month == that.month && day == that.day && hour == that.hour && minute == that.minute;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (toEpochMinutes() ^ (toEpochMinutes() >>> 32));
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return formatDateTime(new TextBuffer()).toString();
+    }
+}
@@ -0,0 +1,289 @@
+package suyuan.pickerview;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.TypedValue;
+import android.view.MotionEvent;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
+import android.widget.SectionIndexer;
+
+/**
+ * PickerView的快速滚动
+ * 在控件右侧的索引条上按下，手指的y坐标会直接映射为要选中的index；在任意位置长按只会进入快速滚动的状态，
+ * 之后手指移动超过touchSlop才开始滚动，移动的距离相对于长按时选中的位置进行映射，所以按住不动不会改变选中的数据。
+ * 中间经过的数据不会被绘制，松手的时候只回调一次onSelect，选中的数据没有变化时不回调
+ * <p>
+ * 索引条只有在控件的宽度能够同时容纳文字和两侧各一个索引条的宽度时才会显示，wrap_content时PickerView会预留出这部分宽度
+ * 如果适配器实现了{@link SectionIndexer}，那么y坐标会先映射为分组，再由分组得到index，同时索引条上会绘制分组的标题
+ *
+ * @author suyuan
+ */
+final class FastScroller {
+    private static final int TRACK_COLOR = 0x22000000;
+    private static final int STRIP_COLOR = 0x33000000;
+    private static final int THUMB_COLOR = 0x88000000;
+
+    private final PickerView pickerView;
+    private final int stripWidth;
+    private final int touchSlop;
+    private final Paint stripPaint;
+    private final Paint labelPaint;
+    private final RectF rect = new RectF();
+    /**
+     * 分组的标题，每次开始快速滚动的时候从适配器中获取一次
+     */
+    private String[] sectionLabels;
+    private boolean isScrolling = false;
+    private boolean isLongPressPending = false;
+    private float downY;
+    /**
+     * 是否由长按开始，此时按照相对于anchorY的移动距离进行映射
+     */
+    private boolean isRelative;
+    /**
+     * 长按开始之后手指是否已经移动超过了touchSlop
+     */
+    private boolean isDragging;
+    private float anchorY;
+    /**
+     * 长按时选中的位置在索引条上的比例
+     */
+    private float anchorFraction;
+    /**
+     * 开始快速滚动时选中的index，以及PickerView是否停在两行之间，用来判断松手时是否需要回调onSelect
+     */
+    private int startIndex;
+    private boolean wasUnsettled;
+    /**
+     * 当前手指所在的分组或者index在索引条上的比例，用来绘制滑块
+     */
+    private float thumbFraction;
+
+    private final Runnable longPressRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isLongPressPending = false;
+            startScroll(downY, true);
+        }
+    };
+
+    FastScroller(PickerView pickerView) {
+        this.pickerView = pickerView;
+        stripWidth = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 20f, pickerView.getResources().getDisplayMetrics());
+        touchSlop = ViewConfiguration.get(pickerView.getContext()).getScaledTouchSlop();
+        stripPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        stripPaint.setStyle(Paint.Style.FILL);
+        labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        labelPaint.setTextAlign(Paint.Align.CENTER);
+        labelPaint.setColor(Color.WHITE);
+    }
+
+    boolean isScrolling() {
+        return isScrolling;
+    }
+
+    /**
+     * 处理触摸事件
+     *
+     * @param event 触摸事件
+     * @return 事件是否被快速滚动消费，为false时PickerView按照正常的滑动处理
+     */
+    boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                downY = event.getY();
+                if (isStripAvailable() && event.getX() >= pickerView.getWidth() - stripWidth) {
+                    // 在索引条上按下，直接开始快速滚动
+                    startScroll(downY, false);
+                    return true;
+                }
+                isLongPressPending = true;
+                pickerView.postDelayed(longPressRunnable, ViewConfiguration.getLongPressTimeout());
+                return false;
+            case MotionEvent.ACTION_MOVE:
+                if (isScrolling) {
+                    if (isRelative && !isDragging) {
+                        if (Math.abs(event.getY() - anchorY) <= touchSlop) {
+                            return true;
+                        }
+                        isDragging = true;
+                    }
+                    scrollTo(event.getY());
+                    return true;
+                }
+                if (isLongPressPending && Math.abs(event.getY() - downY) > touchSlop) {
+                    // 已经开始正常的滑动，取消长按
+                    cancelLongPress();
+                }
+                return false;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                cancelLongPress();
+                if (isScrolling) {
+                    isScrolling = false;
+                    pickerView.invalidate();
+                    if (wasUnsettled || pickerView.getAdapter().getSelectedIndex() != startIndex) {
+                        pickerView.performSelect();
+                    }
+                    return true;
+                }
+                return false;
+            default:
+                return isScrolling;
+        }
+    }
+
+    /**
+     * PickerView离开窗口时取消还没有触发的长按
+     */
+    void onDetachedFromWindow() {
+        cancelLongPress();
+    }
+
+    private void cancelLongPress() {
+        if (isLongPressPending) {
+            isLongPressPending = false;
+            pickerView.removeCallbacks(longPressRunnable);
+        }
+    }
+
+    /**
+     * 索引条在wrap_content时需要预留的宽度，文字居中绘制，所以两侧各预留一个索引条的宽度
+     *
+     * @return 预留的宽度
+     */
+    int getReservedWidth() {
+        return stripWidth * 2;
+    }
+
+    /**
+     * 控件的宽度是否足够显示索引条而不遮挡文字
+     */
+    private boolean isStripAvailable() {
+        return pickerView.getWidth() >= pickerView.getMaxTextWidth() + getReservedWidth();
+    }
+
+    /**
+     * 开始快速滚动，接管本次手势剩下的事件
+     *
+     * @param y          手指的y坐标
+     * @param isRelative 为true时只进入快速滚动的状态，手指移动超过touchSlop之后再按照相对距离映射
+     */
+    private void startScroll(float y, boolean isRelative) {
+        PickerView.Adapter<?> adapter = pickerView.getAdapter();
+        isScrolling = true;
+        this.isRelative = isRelative;
+        isDragging = false;
+        startIndex = adapter.getSelectedIndex();
+        wasUnsettled = pickerView.getScrollOffset() != 0;
+        pickerView.onFastScrollStarted();
+        sectionLabels = null;
+        if (adapter instanceof SectionIndexer) {
+            Object[] sections = ((SectionIndexer) adapter).getSections();
+            if (sections != null && sections.length > 0) {
+                sectionLabels = new String[sections.length];
+                for (int i = 0; i < sections.length; i++) {
+                    sectionLabels[i] = String.valueOf(sections[i]);
+                }
+                float sectionHeight = (float) pickerView.getHeight() / sectionLabels.length;
+                labelPaint.setTextSize(Math.min(sectionHeight, stripWidth) * 0.8f);
+            }
+        }
+        ViewParent parent = pickerView.getParent();
+        if (parent != null) {
+            parent.requestDisallowInterceptTouchEvent(true);
+        }
+        if (isRelative) {
+            anchorY = y;
+            anchorFraction = getSelectedFraction(adapter);
+            thumbFraction = anchorFraction;
+            pickerView.invalidate();
+        } else {
+            scrollTo(y);
+        }
+    }
+
+    /**
+     * 获取当前选中的位置在索引条上的比例，映射回index时得到的仍然是当前选中的位置
+     */
+    private float getSelectedFraction(PickerView.Adapter<?> adapter) {
+        int size = adapter.getDataSize();
+        int index = adapter.getSelectedIndex();
+        if (size == 0 || index < 0) {
+            return 0f;
+        }
+        if (sectionLabels != null) {
+            int section = ((SectionIndexer) adapter).getSectionForPosition(index);
+            section = Math.max(0, Math.min(section, sectionLabels.length - 1));
+            return (section + 0.5f) / sectionLabels.length;
+        }
+        return (index + 0.5f) / size;
+    }
+
+    /**
+     * 将y坐标映射为index，时间复杂度为O(1)
+     * 在索引条上按下时直接按照y坐标映射，长按开始时按照相对于anchorY的移动距离映射
+     *
+     * @param y 手指的y坐标
+     */
+    private void scrollTo(float y) {
+        PickerView.Adapter<?> adapter = pickerView.getAdapter();
+        int size = adapter.getDataSize();
+        int height = pickerView.getHeight();
+        if (size == 0 || height <= 0) {
+            return;
+        }
+        float fraction = isRelative ? anchorFraction + (y - anchorY) / height : y / height;
+        fraction = Math.max(0f, Math.min(fraction, 1f));
+        int index;
+        if (sectionLabels != null) {
+            int section = Math.min((int) (fraction * sectionLabels.length), sectionLabels.length - 1);
+            index = ((SectionIndexer) adapter).getPositionForSection(section);
+            thumbFraction = (section + 0.5f) / sectionLabels.length;
+        } else {
+            index = Math.min((int) (fraction * size), size - 1);
+            thumbFraction = fraction;
+        }
+        if (index >= 0 && index < size) {
+            pickerView.jumpToIndex(index);
+        }
+    }
+
+    /**
+     * 绘制索引条，快速滚动时绘制背景、分组标题以及滑块
+     *
+     * @param canvas 画布
+     */
+    void draw(Canvas canvas) {
+        if (!isStripAvailable()) {
+            return;
+        }
+        int width = pickerView.getWidth();
+        int height = pickerView.getHeight();
+        float left = width - stripWidth;
+        if (!isScrolling) {
+            // 没有快速滚动的时候只绘制一条细线提示索引条的位置
+            stripPaint.setColor(TRACK_COLOR);
+            float trackLeft = width - stripWidth / 2f - 1;
+            canvas.drawRect(trackLeft, 0, trackLeft + 2, height, stripPaint);
+            return;
+        }
+        stripPaint.setColor(STRIP_COLOR);
+        rect.set(left, 0, width, height);
+        canvas.drawRoundRect(rect, stripWidth / 2f, stripWidth / 2f, stripPaint);
+        float centerX = left + stripWidth / 2f;
+        if (sectionLabels != null) {
+            float sectionHeight = (float) height / sectionLabels.length;
+            for (int i = 0; i < sectionLabels.length; i++) {
+                canvas.drawText(sectionLabels[i], centerX, sectionHeight * (i + 0.5f) + labelPaint.getTextSize() / 3f, labelPaint);
+            }
+        }
+        stripPaint.setColor(THUMB_COLOR);
+        float thumbY = thumbFraction * height;
+        rect.set(left, thumbY - stripWidth / 2f, width, thumbY + stripWidth / 2f);
+        canvas.drawRoundRect(rect, stripWidth / 2f, stripWidth / 2f, stripPaint);
+    }
+}
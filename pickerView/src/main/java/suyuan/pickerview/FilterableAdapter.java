@@ -0,0 +1,318 @@
+package suyuan.pickerview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+/**
+ * 支持按照前缀过滤的适配器
+ * 第一次过滤或者调用{@link #buildIndex()}时在后台线程中对所有数据的过滤关键字进行一次排序，建立前缀索引，
+ * 过滤时通过二分查找得到匹配的范围，输入的前缀变长时只在上一次的范围内查找。
+ * 构造时不会建立索引，所以子类的getFilterKey和getText可以使用子类构造方法中初始化的字段。
+ * 过滤的结果只是原数据的下标映射，不会复制数据，也不会重新测量文字的宽度，
+ * 如果过滤前选中的数据仍然在结果中，那么会继续选中该数据
+ * <p>
+ * getText和onSelect中的position是过滤后的位置，可以通过{@link #getSourcePosition(int)}获得原数据中的位置
+ *
+ * @author suyuan
+ */
+public abstract class FilterableAdapter<E> extends PickerView.Adapter<E> {
+    private static final String TAG = "FilterableAdapter";
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private Executor indexExecutor = PickerView.scheduledExecutorService;
+    /**
+     * 按照关键字排序后的关键字和对应的原数据下标，为null说明索引还没有建立完成
+     */
+    private String[] sortedKeys;
+    private int[] sortedPositions;
+    /**
+     * 每次设置数据都会加1，用来丢弃过期的索引
+     */
+    private int indexGeneration = 0;
+    private boolean isIndexing = false;
+    /**
+     * 过滤后的原数据下标，按照原数据的顺序排列，长度等于原数据的数量，复用同一个数组
+     */
+    private int[] filteredPositions;
+    private int filteredCount = 0;
+    private boolean isFiltered = false;
+    /**
+     * 当前的前缀以及其在sortedKeys中匹配的范围[rangeStart, rangeEnd)
+     */
+    private String query = "";
+    private int rangeStart = 0;
+    private int rangeEnd = 0;
+    /**
+     * 索引建立完成之前设置的前缀，建立完成后再进行过滤
+     */
+    private String pendingQuery;
+
+    public FilterableAdapter() {
+        super();
+    }
+
+    public FilterableAdapter(@NotNull List<E> dataList) {
+        super(dataList);
+    }
+
+    public FilterableAdapter(@NotNull List<E> dataList, int selectedIndex) {
+        super(dataList, selectedIndex);
+    }
+
+    /**
+     * 设置数据后之前的索引作废，如果有等待中的前缀，那么立即为新的数据建立索引，否则等到下一次过滤
+     */
+    @Override
+    public void setDataList(@NotNull List<E> dataList) {
+        super.setDataList(dataList);
+        isFiltered = false;
+        query = "";
+        indexGeneration++;
+        isIndexing = false;
+        sortedKeys = null;
+        sortedPositions = null;
+        if (pendingQuery != null) {
+            buildIndex();
+        }
+    }
+
+    /**
+     * 设置建立索引使用的线程池，默认与PickerView测量文字宽度共用
+     *
+     * @param executor 线程池
+     */
+    public void setIndexExecutor(@NonNull Executor executor) {
+        this.indexExecutor = executor;
+    }
+
+    /**
+     * 获取用来过滤的关键字，默认为getText的结果转为小写，该方法会在后台线程中调用
+     *
+     * @param data           数据
+     * @param sourcePosition 数据在原数据中的位置
+     * @return 过滤的关键字
+     */
+    @NonNull
+    protected String getFilterKey(E data, int sourcePosition) {
+        return getText(data, sourcePosition).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 对前缀进行规范化，需要与{@link #getFilterKey(Object, int)}的规则一致，默认转为小写
+     *
+     * @param query 输入的前缀
+     * @return 规范化之后的前缀
+     */
+    @NonNull
+    protected String normalizeQuery(@NonNull CharSequence query) {
+        return query.toString().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public E getData(int position) {
+        return super.getData(getSourcePosition(position));
+    }
+
+    @Override
+    public int getDataSize() {
+        return isFiltered ? filteredCount : getSourceSize();
+    }
+
+    /**
+     * 获取过滤后的位置对应的原数据中的位置
+     *
+     * @param position 过滤后的位置
+     * @return 原数据中的位置
+     */
+    public int getSourcePosition(int position) {
+        return isFiltered ? filteredPositions[position] : position;
+    }
+
+    public int getSourceSize() {
+        return getDataList().size();
+    }
+
+    public boolean isFiltered() {
+        return isFiltered;
+    }
+
+    /**
+     * 按照前缀进行过滤，需要在主线程中调用
+     * 如果索引还没有建立，那么开始建立，并在建立完成后再进行过滤
+     *
+     * @param prefix 前缀，为空时显示全部数据
+     */
+    public void filter(@NonNull CharSequence prefix) {
+        String newQuery = normalizeQuery(prefix);
+        if (sortedKeys == null) {
+            pendingQuery = newQuery;
+            buildIndex();
+            return;
+        }
+        applyQuery(newQuery);
+    }
+
+    private void applyQuery(String newQuery) {
+        if (newQuery.equals(query)) {
+            return;
+        }
+        int selectedIndex = getSelectedIndex();
+        int selectedSourcePosition = selectedIndex == -1 ? -1 : getSourcePosition(selectedIndex);
+        if (newQuery.isEmpty()) {
+            isFiltered = false;
+            query = newQuery;
+            setSelectedIndex(selectedSourcePosition == -1 && getSourceSize() > 0 ? 0 : selectedSourcePosition);
+            notifyDataFiltered();
+            return;
+        }
+        // 前缀变长时，新的匹配范围一定在原本的范围之内
+        int start = 0;
+        int end = sortedKeys.length;
+        if (isFiltered && newQuery.startsWith(query)) {
+            start = rangeStart;
+            end = rangeEnd;
+        }
+        rangeStart = lowerBound(newQuery, start, end);
+        rangeEnd = prefixUpperBound(newQuery, rangeStart, end);
+        query = newQuery;
+        isFiltered = true;
+        filteredCount = rangeEnd - rangeStart;
+        System.arraycopy(sortedPositions, rangeStart, filteredPositions, 0, filteredCount);
+        // 按照原数据的顺序排列，同时便于查找之前选中的数据
+        Arrays.sort(filteredPositions, 0, filteredCount);
+        int newSelectedIndex = selectedSourcePosition == -1 ? -1 : Arrays.binarySearch(filteredPositions, 0, filteredCount, selectedSourcePosition);
+        if (newSelectedIndex < 0) {
+            newSelectedIndex = filteredCount > 0 ? 0 : -1;
+        }
+        setSelectedIndex(newSelectedIndex);
+        notifyDataFiltered();
+    }
+
+    /**
+     * 找到第一个不小于prefix的关键字
+     */
+    private int lowerBound(String prefix, int start, int end) {
+        int low = start;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedKeys[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 从start开始，找到第一个不以prefix开头的关键字，以prefix开头的关键字在排序后是连续的
+     */
+    private int prefixUpperBound(String prefix, int start, int end) {
+        int low = start;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedKeys[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 在后台线程中建立前缀索引，完成后回到主线程，需要在主线程中调用
+     * 索引已经建立或者正在建立时不做任何事，可以在构造完成后调用，提前为第一次过滤做好准备
+     */
+    public void buildIndex() {
+        if (sortedKeys != null || isIndexing) {
+            return;
+        }
+        isIndexing = true;
+        final int generation = indexGeneration;
+        final List<E> dataList = getDataList();
+        indexExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                int size = dataList.size();
+                final String[] keys = new String[size];
+                final int[] positions = new int[size];
+                for (int i = 0; i < size; i++) {
+                    keys[i] = getFilterKey(dataList.get(i), i);
+                    positions[i] = i;
+                }
+                sortByKey(keys, positions);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onIndexBuilt(generation, keys, positions);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onIndexBuilt(int generation, String[] keys, int[] positions) {
+        if (generation != indexGeneration) {
+            Log.d(TAG, "onIndexBuilt: 索引已过期");
+            return;
+        }
+        isIndexing = false;
+        sortedKeys = keys;
+        sortedPositions = positions;
+        filteredPositions = new int[keys.length];
+        if (pendingQuery != null) {
+            String newQuery = pendingQuery;
+            pendingQuery = null;
+            applyQuery(newQuery);
+        }
+    }
+
+    /**
+     * 对关键字进行归并排序，同时移动对应的下标，排序是稳定的
+     */
+    private static void sortByKey(String[] keys, int[] positions) {
+        int size = keys.length;
+        String[] keyBuffer = new String[size];
+        int[] positionBuffer = new int[size];
+        for (int width = 1; width < size; width *= 2) {
+            for (int left = 0; left < size - width; left += width * 2) {
+                int mid = left + width;
+                int right = Math.min(left + width * 2, size);
+                int i = left;
+                int j = mid;
+                int k = left;
+                while (i < mid && j < right) {
+                    if (keys[j].compareTo(keys[i]) < 0) {
+                        keyBuffer[k] = keys[j];
+                        positionBuffer[k++] = positions[j++];
+                    } else {
+                        keyBuffer[k] = keys[i];
+                        positionBuffer[k++] = positions[i++];
+                    }
+                }
+                while (i < mid) {
+                    keyBuffer[k] = keys[i];
+                    positionBuffer[k++] = positions[i++];
+                }
+                while (j < right) {
+                    keyBuffer[k] = keys[j];
+                    positionBuffer[k++] = positions[j++];
+                }
+                System.arraycopy(keyBuffer, left, keys, left, right - left);
+                System.arraycopy(positionBuffer, left, positions, left, right - left);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package suyuan.pickerview;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 公历，DatePicker默认使用的历法
+ * 没有闰月，monthIndex就是月份减1
+ *
+ * @author suyuan
+ */
+public final class GregorianCalendarEngine extends CalendarEngine {
+    private static final GregorianCalendarEngine INSTANCE = new GregorianCalendarEngine();
+
+    private GregorianCalendarEngine() {
+    }
+
+    @NonNull
+    public static GregorianCalendarEngine getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public int getMinYear() {
+        return 1;
+    }
+
+    @Override
+    public int getMaxYear() {
+        return 9999;
+    }
+
+    @Override
+    public int getLeapMonth(int year) {
+        return 0;
+    }
+
+    @Override
+    public int getDayCount(int year, int monthIndex) {
+        switch (monthIndex + 1) {
+            case 1:
+            case 3:
+            case 5:
+            case 7:
+            case 8:
+            case 10:
+            case 12:
+                return 31;
+            case 2:
+                //判断闰年, 闰年2月为29
+                if (year % 100 == 0 && year % 400 == 0 || year % 4 == 0 && year % 100 != 0) {
+                    return 29;
+                }
+                return 28;
+            default:
+                return 30;
+        }
+    }
+
+    @Override
+    public long toEpochDay(int year, int monthIndex, int day) {
+        return DateTimeFields.daysFromCivil(year, monthIndex + 1, day);
+    }
+
+    @Override
+    public void fromEpochDay(long epochDay, @NonNull int[] date) {
+        long civil = DateTimeFields.civilFromDays(epochDay);
+        date[YEAR] = DateTimeFields.packedYear(civil);
+        date[MONTH_INDEX] = DateTimeFields.packedMonth(civil) - 1;
+        date[DAY] = DateTimeFields.packedDay(civil);
+    }
+}
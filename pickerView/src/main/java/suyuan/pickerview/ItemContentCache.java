@@ -0,0 +1,81 @@
+package suyuan.pickerview;
+
+/**
+ * 缓存{@link ItemRenderer#prepare}的结果
+ * 可见的项只有十几个，所以使用线性查找的小数组实现LRU，不需要为每一项创建节点
+ * 数据或者样式变化时只标记所有的位置失效，内容仍然保留，用来传给prepare复用
+ *
+ * @author suyuan
+ */
+final class ItemContentCache {
+    private static final int NO_POSITION = -1;
+
+    private int[] positions = new int[0];
+    private Object[] contents = new Object[0];
+    /**
+     * 每一项最近一次被使用的序号，用来找到最久没有使用的项
+     */
+    private long[] lastUsed = new long[0];
+    private long useCounter = 0;
+
+    private ItemRenderer<?> renderer;
+    private PickerView.Adapter<?> adapter;
+    private int adapterModCount;
+
+    /**
+     * 获取某个位置准备好的内容，没有缓存时调用prepare并替换最久没有使用的项
+     *
+     * @param pickerView PickerView
+     * @param renderer   当前的renderer
+     * @param position   数据的位置
+     * @param capacity   至少需要缓存的项数，一般为可见的项数
+     * @return 准备好的内容
+     */
+    @SuppressWarnings("unchecked")
+    Object get(PickerView pickerView, ItemRenderer renderer, int position, int capacity) {
+        PickerView.Adapter<?> currentAdapter = pickerView.getAdapter();
+        if (renderer != this.renderer || capacity > positions.length) {
+            // 不同renderer准备的内容不能互相复用
+            reset(renderer, capacity);
+        }
+        if (currentAdapter != adapter || currentAdapter.modCount != adapterModCount) {
+            adapter = currentAdapter;
+            adapterModCount = currentAdapter.modCount;
+            invalidate();
+        }
+        useCounter++;
+        int victim = 0;
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] == position) {
+                lastUsed[i] = useCounter;
+                return contents[i];
+            }
+            if (lastUsed[i] < lastUsed[victim]) {
+                victim = i;
+            }
+        }
+        contents[victim] = renderer.prepare(pickerView, position, contents[victim]);
+        positions[victim] = position;
+        lastUsed[victim] = useCounter;
+        return contents[victim];
+    }
+
+    /**
+     * 标记所有位置失效，下次获取时重新调用prepare
+     */
+    void invalidate() {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = NO_POSITION;
+            lastUsed[i] = 0;
+        }
+    }
+
+    private void reset(ItemRenderer<?> renderer, int capacity) {
+        this.renderer = renderer;
+        int size = Math.max(capacity, positions.length);
+        positions = new int[size];
+        contents = new Object[size];
+        lastUsed = new long[size];
+        invalidate();
+    }
+}
@@ -0,0 +1,160 @@
+package suyuan.pickerview;
+
+import android.graphics.Paint;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 传给{@link ItemRenderer#draw}的绘制状态，PickerView中只有一个实例，每绘制一项之前重新设置
+ * 其中的画笔已经按照当前的过渡比例配置好了尺寸、颜色和透明度，绘制时不要修改
+ *
+ * @author suyuan
+ */
+public final class ItemDrawState {
+    private final PickerView pickerView;
+    private final TextBuffer text = new TextBuffer();
+    private boolean isTextLoaded;
+
+    int position;
+    float centerX;
+    float centerY;
+    float fraction;
+    boolean isSelectedRow;
+    boolean isTransition;
+    boolean isMovingDown;
+    boolean isEnlarging;
+    float itemWidth;
+    float itemHeight;
+    float textSize;
+    float textScale;
+    float baseLine;
+    Paint selectedPaint;
+    Paint unselectedPaint;
+
+    ItemDrawState(PickerView pickerView) {
+        this.pickerView = pickerView;
+    }
+
+    /**
+     * 开始绘制新的一项，文本在第一次调用getText的时候才会获取
+     */
+    void reset(int position) {
+        this.position = position;
+        isTextLoaded = false;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public float getCenterX() {
+        return centerX;
+    }
+
+    /**
+     * @return 当前项中线的y坐标
+     */
+    public float getCenterY() {
+        return centerY;
+    }
+
+    /**
+     * @return 从选中到未选中的过渡比例，0代表完全选中，1代表未选中
+     */
+    public float getFraction() {
+        return fraction;
+    }
+
+    /**
+     * @return 是否是位于中间的选中项
+     */
+    public boolean isSelectedRow() {
+        return isSelectedRow;
+    }
+
+    /**
+     * @return 选中项是否正处于过渡中，此时需要同时使用两个画笔绘制渐变的效果
+     */
+    public boolean isTransition() {
+        return isTransition;
+    }
+
+    /**
+     * @return 当前是否在向下滑动
+     */
+    public boolean isMovingDown() {
+        return isMovingDown;
+    }
+
+    /**
+     * @return 选中项是否正在变大，即正在成为新的选中项
+     */
+    public boolean isEnlarging() {
+        return isEnlarging;
+    }
+
+    /**
+     * @return 所有项中最大的文字宽度
+     */
+    public float getItemWidth() {
+        return itemWidth;
+    }
+
+    /**
+     * @return 相邻两项中线之间的距离
+     */
+    public float getItemHeight() {
+        return itemHeight;
+    }
+
+    /**
+     * @return 当前过渡比例下的文字尺寸
+     */
+    public float getTextSize() {
+        return textSize;
+    }
+
+    /**
+     * @return 画布缩放模式下需要以中点为中心缩放的比例，为1时不需要缩放
+     */
+    public float getTextScale() {
+        return textScale;
+    }
+
+    /**
+     * @return 文字居中绘制时的baseLine
+     */
+    public float getBaseLine() {
+        return baseLine;
+    }
+
+    /**
+     * @return 选中文字的画笔，过渡时为渐变层的画笔
+     */
+    @NonNull
+    public Paint getSelectedPaint() {
+        return selectedPaint;
+    }
+
+    /**
+     * @return 未选中文字的画笔，过渡时为底色层的画笔
+     */
+    @NonNull
+    public Paint getUnselectedPaint() {
+        return unselectedPaint;
+    }
+
+    /**
+     * 获取当前项的文本，内容通过{@link PickerView.Adapter#writeText(int, TextBuffer)}写入，不会创建String
+     *
+     * @return 复用的文本缓冲区，绘制下一项时内容会被替换
+     */
+    @NonNull
+    public TextBuffer getText() {
+        if (!isTextLoaded) {
+            isTextLoaded = true;
+            pickerView.loadVisibleItemText(position, text);
+        }
+        return text;
+    }
+}
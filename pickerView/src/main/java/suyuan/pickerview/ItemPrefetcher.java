@@ -0,0 +1,88 @@
+package suyuan.pickerview;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+
+/**
+ * 在主线程空闲时，提前准备滚动方向上即将进入可见范围的几项
+ * 每次空闲最多使用budgetNanos的时间，没有完成的部分留到下一次空闲，新的滚动开始后之前的进度作废
+ * 预取的行数根据手指的速度决定，越快看得越远
+ *
+ * @author suyuan
+ */
+final class ItemPrefetcher implements MessageQueue.IdleHandler {
+    /**
+     * 默认每次空闲的时间预算，一帧16ms中的一小部分
+     */
+    static final long DEFAULT_BUDGET_NANOS = 2_000_000L;
+    static final int MIN_ROWS = 2;
+    static final int MAX_ROWS = 8;
+    /**
+     * 按照当前速度预取接下来这段时间内会出现的行
+     */
+    private static final float LOOKAHEAD_SECONDS = 0.15f;
+
+    private final PickerView pickerView;
+    private long budgetNanos = DEFAULT_BUDGET_NANOS;
+    private boolean isScheduled = false;
+    /**
+     * 预取的方向，1为index增大的方向，-1为index减小的方向
+     */
+    private int step;
+    private int rowCount;
+    /**
+     * 下一个要预取的是可见范围之外的第几项，从1开始
+     */
+    private int nextRow;
+
+    ItemPrefetcher(PickerView pickerView) {
+        this.pickerView = pickerView;
+    }
+
+    void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * 选中的index变化之后调用，重新开始预取
+     *
+     * @param step      1为index增大的方向，-1为index减小的方向
+     * @param velocityY 手指的速度，单位为像素/秒
+     * @param distance  相邻两项的距离
+     */
+    void schedule(int step, float velocityY, float distance) {
+        this.step = step;
+        int rows = (int) Math.ceil(Math.abs(velocityY) * LOOKAHEAD_SECONDS / distance);
+        rowCount = Math.min(Math.max(rows, MIN_ROWS), MAX_ROWS);
+        nextRow = 1;
+        if (!isScheduled) {
+            isScheduled = true;
+            Looper.myQueue().addIdleHandler(this);
+        }
+    }
+
+    void cancel() {
+        if (isScheduled) {
+            isScheduled = false;
+            Looper.myQueue().removeIdleHandler(this);
+        }
+    }
+
+    @Override
+    public boolean queueIdle() {
+        long deadline = System.nanoTime() + budgetNanos;
+        while (nextRow <= rowCount) {
+            if (!pickerView.prefetchRow(step, nextRow)) {
+                // 已经到了数据的边界
+                nextRow = rowCount + 1;
+                break;
+            }
+            nextRow++;
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        isScheduled = nextRow <= rowCount;
+        return isScheduled;
+    }
+}
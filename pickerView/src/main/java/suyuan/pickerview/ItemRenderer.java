@@ -0,0 +1,39 @@
+package suyuan.pickerview;
+
+import android.graphics.Canvas;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 自定义PickerView中每一项的绘制方式，例如图标、两行文字、角标等
+ * 每一项的绘制分为两步：prepare准备需要绘制的内容，结果会被PickerView缓存；draw根据当前的绘制状态进行绘制，每一帧都会调用
+ * 绘制状态{@link ItemDrawState}是复用的，draw中不要持有它的引用
+ * <p>
+ * 默认的实现是{@link TextItemRenderer}，滚轮模式下不使用ItemRenderer
+ *
+ * @param <C> 准备好的内容的类型，不需要缓存内容时可以使用Void
+ * @author suyuan
+ */
+public interface ItemRenderer<C> {
+    /**
+     * 准备某个位置要绘制的内容，例如图标、排好版的StaticLayout等
+     * 结果会被缓存，只有该位置重新进入可见范围、数据发生变化或者样式发生变化时才会再次调用
+     *
+     * @param pickerView 正在绘制的PickerView，可以通过getAdapter获取数据
+     * @param position   数据的位置
+     * @param recycled   之前被移出缓存的内容，可以直接修改后返回，避免创建新的对象，可能为null
+     * @return 准备好的内容，不需要时返回null
+     */
+    @Nullable
+    C prepare(@NonNull PickerView pickerView, int position, @Nullable C recycled);
+
+    /**
+     * 绘制某一项
+     *
+     * @param canvas  画布
+     * @param state   当前项的绘制状态，包括位置、过渡比例以及配置好的画笔
+     * @param content prepare返回的内容
+     */
+    void draw(@NonNull Canvas canvas, @NonNull ItemDrawState state, @Nullable C content);
+}
@@ -0,0 +1,110 @@
+package suyuan.pickerview;
+
+/**
+ * 缓存可见项和预取项的文本，与{@link ItemContentCache}一样使用线性查找的小数组实现LRU
+ * 适配器或者其modCount变化时所有位置失效，字符数组保留下来复用
+ *
+ * @author suyuan
+ */
+final class ItemTextCache {
+    private static final int NO_POSITION = -1;
+
+    private int[] positions = new int[0];
+    private char[][] texts = new char[0][];
+    private int[] lengths = new int[0];
+    private long[] lastUsed = new long[0];
+    private long useCounter = 0;
+
+    private PickerView.Adapter<?> adapter;
+    private int adapterModCount;
+
+    /**
+     * 获取某个位置缓存的文本
+     *
+     * @param adapter  当前的适配器
+     * @param position 数据的位置
+     * @param buffer   已经清空的缓冲区，命中时写入文本
+     * @return 是否命中
+     */
+    boolean get(PickerView.Adapter<?> adapter, int position, TextBuffer buffer) {
+        validate(adapter);
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] == position) {
+                lastUsed[i] = ++useCounter;
+                buffer.append(texts[i], 0, lengths[i]);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 缓存某个位置的文本，替换最久没有使用的项
+     *
+     * @param adapter  当前的适配器
+     * @param position 数据的位置
+     * @param text     文本
+     * @param capacity 至少需要缓存的项数
+     */
+    void put(PickerView.Adapter<?> adapter, int position, TextBuffer text, int capacity) {
+        if (capacity > positions.length) {
+            resize(capacity);
+        }
+        validate(adapter);
+        int victim = 0;
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] == position) {
+                victim = i;
+                break;
+            }
+            if (lastUsed[i] < lastUsed[victim]) {
+                victim = i;
+            }
+        }
+        int length = text.length();
+        if (texts[victim] == null || texts[victim].length < length) {
+            texts[victim] = new char[Math.max(length, 16)];
+        }
+        System.arraycopy(text.getChars(), 0, texts[victim], 0, length);
+        lengths[victim] = length;
+        positions[victim] = position;
+        lastUsed[victim] = ++useCounter;
+    }
+
+    /**
+     * 标记所有位置失效
+     */
+    void invalidate() {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = NO_POSITION;
+            lastUsed[i] = 0;
+        }
+    }
+
+    private void validate(PickerView.Adapter<?> currentAdapter) {
+        if (currentAdapter != adapter || currentAdapter.modCount != adapterModCount) {
+            adapter = currentAdapter;
+            adapterModCount = currentAdapter.modCount;
+            invalidate();
+        }
+    }
+
+    private void resize(int capacity) {
+        int oldLength = positions.length;
+        int[] newPositions = new int[capacity];
+        char[][] newTexts = new char[capacity][];
+        int[] newLengths = new int[capacity];
+        long[] newLastUsed = new long[capacity];
+        System.arraycopy(positions, 0, newPositions, 0, oldLength);
+        System.arraycopy(texts, 0, newTexts, 0, oldLength);
+        System.arraycopy(lengths, 0, newLengths, 0, oldLength);
+        System.arraycopy(lastUsed, 0, newLastUsed, 0, oldLength);
+        for (int i = oldLength; i < capacity; i++) {
+            newPositions[i] = NO_POSITION;
+        }
+        positions = newPositions;
+        texts = newTexts;
+        lengths = newLengths;
+        lastUsed = newLastUsed;
+    }
+}
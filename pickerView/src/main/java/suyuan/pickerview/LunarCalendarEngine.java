@@ -0,0 +1,176 @@
+package suyuan.pickerview;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 农历，支持1900年到2100年
+ * 每一年的大小月和闰月都压缩在一个int中，另外在类加载时计算出每一年正月初一的epoch天数，
+ * 之后所有的查询都只是查表和位运算，不需要循环累加，也不会创建对象
+ *
+ * @author suyuan
+ */
+public final class LunarCalendarEngine extends CalendarEngine {
+    private static final int MIN_YEAR = 1900;
+    private static final int MAX_YEAR = 2100;
+    /**
+     * 1900年到2100年的农历信息
+     * 0-3位：闰月跟在哪个月之后，0为没有闰月
+     * 4-15位：从第15位开始依次为1月到12月，1为大月（30天），0为小月（29天）
+     * 16位：闰月是否为大月
+     */
+    private static final int[] LUNAR_INFO = {
+            0x04bd8, 0x04ae0, 0x0a570, 0x054d5, 0x0d260, 0x0d950, 0x16554, 0x056a0, 0x09ad0, 0x055d2, // 1900-1909
+            0x04ae0, 0x0a5b6, 0x0a4d0, 0x0d250, 0x1d255, 0x0b540, 0x0d6a0, 0x0ada2, 0x095b0, 0x14977, // 1910-1919
+            0x04970, 0x0a4b0, 0x0b4b5, 0x06a50, 0x06d40, 0x1ab54, 0x02b60, 0x09570, 0x052f2, 0x04970, // 1920-1929
+            0x06566, 0x0d4a0, 0x0ea50, 0x16a95, 0x05ad0, 0x02b60, 0x186e3, 0x092e0, 0x1c8d7, 0x0c950, // 1930-1939
+            0x0d4a0, 0x1d8a6, 0x0b550, 0x056a0, 0x1a5b4, 0x025d0, 0x092d0, 0x0d2b2, 0x0a950, 0x0b557, // 1940-1949
+            0x06ca0, 0x0b550, 0x15355, 0x04da0, 0x0a5b0, 0x14573, 0x052b0, 0x0a9a8, 0x0e950, 0x06aa0, // 1950-1959
+            0x0aea6, 0x0ab50, 0x04b60, 0x0aae4, 0x0a570, 0x05260, 0x0f263, 0x0d950, 0x05b57, 0x056a0, // 1960-1969
+            0x096d0, 0x04dd5, 0x04ad0, 0x0a4d0, 0x0d4d4, 0x0d250, 0x0d558, 0x0b540, 0x0b6a0, 0x195a6, // 1970-1979
+            0x095b0, 0x049b0, 0x0a974, 0x0a4b0, 0x0b27a, 0x06a50, 0x06d40, 0x0af46, 0x0ab60, 0x09570, // 1980-1989
+            0x04af5, 0x04970, 0x064b0, 0x074a3, 0x0ea50, 0x06b58, 0x05ac0, 0x0ab60, 0x096d5, 0x092e0, // 1990-1999
+            0x0c960, 0x0d954, 0x0d4a0, 0x0da50, 0x07552, 0x056a0, 0x0abb7, 0x025d0, 0x092d0, 0x0cab5, // 2000-2009
+            0x0a950, 0x0b4a0, 0x0baa4, 0x0ad50, 0x055d9, 0x04ba0, 0x0a5b0, 0x15176, 0x052b0, 0x0a930, // 2010-2019
+            0x07954, 0x06aa0, 0x0ad50, 0x05b52, 0x04b60, 0x0a6e6, 0x0a4e0, 0x0d260, 0x0ea65, 0x0d530, // 2020-2029
+            0x05aa0, 0x076a3, 0x096d0, 0x04afb, 0x04ad0, 0x0a4d0, 0x1d0b6, 0x0d250, 0x0d520, 0x0dd45, // 2030-2039
+            0x0b5a0, 0x056d0, 0x055b2, 0x049b0, 0x0a577, 0x0a4b0, 0x0aa50, 0x1b255, 0x06d20, 0x0ada0, // 2040-2049
+            0x14b63, 0x09370, 0x049f8, 0x04970, 0x064b0, 0x168a6, 0x0ea50, 0x06b20, 0x1a6c4, 0x0aae0, // 2050-2059
+            0x0a2e0, 0x0d2e3, 0x0c960, 0x0d557, 0x0d4a0, 0x0da50, 0x05d55, 0x056a0, 0x0a6d0, 0x055d4, // 2060-2069
+            0x052d0, 0x0a9b8, 0x0a950, 0x0b4a0, 0x0b6a6, 0x0ad50, 0x055a0, 0x0aba4, 0x0a5b0, 0x052b0, // 2070-2079
+            0x0b273, 0x06930, 0x07337, 0x06aa0, 0x0ad50, 0x14b55, 0x04b60, 0x0a570, 0x054e4, 0x0d160, // 2080-2089
+            0x0e968, 0x0d520, 0x0daa0, 0x16aa6, 0x056d0, 0x04ae0, 0x0a9d4, 0x0a2d0, 0x0d150, 0x0f252, // 2090-2099
+            0x0d520 // 2100
+    };
+    /**
+     * 每一年正月初一的epoch天数，最后一项是2101年正月初一
+     */
+    private static final int[] NEW_YEAR_EPOCH_DAYS = new int[LUNAR_INFO.length + 1];
+    private static final String[] MONTH_NAMES = {
+            "正月", "二月", "三月", "四月", "五月", "六月", "七月", "八月", "九月", "十月", "冬月", "腊月"
+    };
+    private static final String[] DAY_NAMES = {
+            "初一", "初二", "初三", "初四", "初五", "初六", "初七", "初八", "初九", "初十",
+            "十一", "十二", "十三", "十四", "十五", "十六", "十七", "十八", "十九", "二十",
+            "廿一", "廿二", "廿三", "廿四", "廿五", "廿六", "廿七", "廿八", "廿九", "三十"
+    };
+    private static final LunarCalendarEngine INSTANCE = new LunarCalendarEngine();
+
+    static {
+        // 农历1900年正月初一是公历1900年1月31日
+        NEW_YEAR_EPOCH_DAYS[0] = (int) DateTimeFields.daysFromCivil(1900, 1, 31);
+        for (int i = 0; i < LUNAR_INFO.length; i++) {
+            NEW_YEAR_EPOCH_DAYS[i + 1] = NEW_YEAR_EPOCH_DAYS[i] + getDaysBefore(LUNAR_INFO[i], 13);
+        }
+    }
+
+    private LunarCalendarEngine() {
+    }
+
+    @NonNull
+    public static LunarCalendarEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 计算一年中某个月之前所有月份的天数
+     *
+     * @param info       该年的农历信息
+     * @param monthIndex 月份在该年中的序号，从0开始，传入13时得到全年的天数
+     * @return 天数
+     */
+    private static int getDaysBefore(int info, int monthIndex) {
+        int leapMonth = info & 0xf;
+        boolean isLeapBefore = leapMonth != 0 && monthIndex > leapMonth;
+        int normalMonths = Math.min(isLeapBefore ? monthIndex - 1 : monthIndex, 12);
+        // 第1到normalMonths个月对应第15位往下的normalMonths位
+        int mask = ((1 << normalMonths) - 1) << (16 - normalMonths);
+        int days = normalMonths * 29 + Integer.bitCount(info & mask);
+        if (isLeapBefore) {
+            days += (info & 0x10000) != 0 ? 30 : 29;
+        }
+        return days;
+    }
+
+    private static int getInfo(int year) {
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            throw new IllegalArgumentException("year " + year + " is out of range [" + MIN_YEAR + ", " + MAX_YEAR + "]");
+        }
+        return LUNAR_INFO[year - MIN_YEAR];
+    }
+
+    @Override
+    public int getMinYear() {
+        return MIN_YEAR;
+    }
+
+    @Override
+    public int getMaxYear() {
+        return MAX_YEAR;
+    }
+
+    @Override
+    public int getLeapMonth(int year) {
+        return getInfo(year) & 0xf;
+    }
+
+    @Override
+    public int getDayCount(int year, int monthIndex) {
+        int info = getInfo(year);
+        int leapMonth = info & 0xf;
+        if (leapMonth != 0 && monthIndex == leapMonth) {
+            return (info & 0x10000) != 0 ? 30 : 29;
+        }
+        int month = leapMonth != 0 && monthIndex > leapMonth ? monthIndex : monthIndex + 1;
+        return (info & (0x10000 >> month)) != 0 ? 30 : 29;
+    }
+
+    @Override
+    public long toEpochDay(int year, int monthIndex, int day) {
+        return NEW_YEAR_EPOCH_DAYS[year - MIN_YEAR] + getDaysBefore(getInfo(year), monthIndex) + day - 1;
+    }
+
+    @Override
+    public void fromEpochDay(long epochDay, @NonNull int[] date) {
+        if (epochDay < NEW_YEAR_EPOCH_DAYS[0] || epochDay >= NEW_YEAR_EPOCH_DAYS[LUNAR_INFO.length]) {
+            throw new IllegalArgumentException("epochDay " + epochDay + " is out of range");
+        }
+        // 农历年的平均长度接近回归年，估算的下标最多相差一年
+        int index = (int) ((epochDay - NEW_YEAR_EPOCH_DAYS[0]) * 10000 / 3652422);
+        index = Math.min(Math.max(index, 0), LUNAR_INFO.length - 1);
+        while (NEW_YEAR_EPOCH_DAYS[index] > epochDay) {
+            index--;
+        }
+        while (NEW_YEAR_EPOCH_DAYS[index + 1] <= epochDay) {
+            index++;
+        }
+        int info = LUNAR_INFO[index];
+        int dayOfYear = (int) (epochDay - NEW_YEAR_EPOCH_DAYS[index]);
+        int monthCount = (info & 0xf) == 0 ? 12 : 13;
+        int monthIndex = 0;
+        while (monthIndex + 1 < monthCount && getDaysBefore(info, monthIndex + 1) <= dayOfYear) {
+            monthIndex++;
+        }
+        date[YEAR] = index + MIN_YEAR;
+        date[MONTH_INDEX] = monthIndex;
+        date[DAY] = dayOfYear - getDaysBefore(info, monthIndex) + 1;
+    }
+
+    /**
+     * 写入月份的名称，例如正月、闰四月、腊月
+     */
+    @Override
+    public void writeMonthText(int year, int monthIndex, @NonNull TextBuffer buffer) {
+        if (isLeapMonth(year, monthIndex)) {
+            buffer.append('闰');
+        }
+        buffer.append(MONTH_NAMES[getMonth(year, monthIndex) - 1]);
+    }
+
+    /**
+     * 写入日的名称，例如初一、廿九
+     */
+    @Override
+    public void writeDayText(int year, int monthIndex, int day, @NonNull TextBuffer buffer) {
+        buffer.append(DAY_NAMES[day - 1]);
+    }
+}
@@ -0,0 +1,203 @@
+package suyuan.pickerview;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+
+import androidx.annotation.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * 只读的紧凑二进制数据集，由packedDatasetWriter模块中的PackedDatasetWriter在构建时生成，适合省市区这类体积较大的静态联动数据
+ * 文件被直接映射到内存中，打开的耗时与数据量无关，只有真正显示的数据才会被解码为String
+ * <p>
+ * 文件格式（大端序）：
+ * <pre>
+ * int   MAGIC
+ * int   VERSION
+ * int   nodeCount
+ * int   rootCount            根节点的id为[0, rootCount)
+ * int   stringPoolOffset     字符串池相对于文件开头的偏移
+ * node[nodeCount]            每个节点16字节：textOffset, textLength, firstChild, childCount
+ * byte[]                     UTF-8字符串池
+ * </pre>
+ * 同一个节点的子节点的id是连续的，所以子列表只需要firstChild和childCount就可以表示
+ *
+ * @author suyuan
+ */
+public final class PackedDataset {
+    /**
+     * 格式的常量，修改时需要同时修改PackedDatasetWriter
+     */
+    static final int MAGIC = 0x504B4453;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final int NODE_SIZE = 16;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer buffer;
+    private final int nodeCount;
+    private final int rootCount;
+    private final int stringPoolOffset;
+    /**
+     * 解码时复用的字节数组，长度不够时才会扩容
+     */
+    private byte[] scratch = new byte[64];
+
+    private PackedDataset(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("not a packed dataset");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("unsupported packed dataset version: " + buffer.getInt(4));
+        }
+        nodeCount = buffer.getInt(8);
+        rootCount = buffer.getInt(12);
+        stringPoolOffset = buffer.getInt(16);
+        if (stringPoolOffset < HEADER_SIZE + (long) nodeCount * NODE_SIZE || stringPoolOffset > buffer.limit()) {
+            throw new IOException("corrupted packed dataset");
+        }
+    }
+
+    /**
+     * 将文件映射到内存中
+     *
+     * @param file 由PackedDatasetWriter生成的文件
+     * @return 数据集
+     * @throws IOException 文件不存在或者格式不正确
+     */
+    @NonNull
+    public static PackedDataset open(@NonNull File file) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            return new PackedDataset(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            // 映射建立之后关闭文件不会影响映射的内存
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * 从assets中打开数据集
+     * 如果该文件在apk中没有被压缩（在build.gradle中配置aaptOptions { noCompress 'pkd' }），那么直接映射到内存中，
+     * 否则只能将文件完整读取到内存中
+     *
+     * @param assetManager AssetManager
+     * @param fileName     assets中的文件名
+     * @return 数据集
+     * @throws IOException 文件不存在或者格式不正确
+     */
+    @NonNull
+    public static PackedDataset openAsset(@NonNull AssetManager assetManager, @NonNull String fileName) throws IOException {
+        AssetFileDescriptor descriptor;
+        try {
+            descriptor = assetManager.openFd(fileName);
+        } catch (IOException e) {
+            // 文件被压缩了，无法映射
+            return new PackedDataset(readFully(assetManager.open(fileName)));
+        }
+        try {
+            FileInputStream inputStream = descriptor.createInputStream();
+            try {
+                FileChannel channel = inputStream.getChannel();
+                return new PackedDataset(channel.map(FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(), descriptor.getLength()));
+            } finally {
+                inputStream.close();
+            }
+        } finally {
+            descriptor.close();
+        }
+    }
+
+    private static ByteBuffer readFully(InputStream inputStream) throws IOException {
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] bytes = new byte[8192];
+            int count;
+            while ((count = inputStream.read(bytes)) != -1) {
+                outputStream.write(bytes, 0, count);
+            }
+            return ByteBuffer.wrap(outputStream.toByteArray());
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getRootCount() {
+        return rootCount;
+    }
+
+    public int getFirstChild(int node) {
+        return buffer.getInt(HEADER_SIZE + node * NODE_SIZE + 8);
+    }
+
+    public int getChildCount(int node) {
+        return buffer.getInt(HEADER_SIZE + node * NODE_SIZE + 12);
+    }
+
+    /**
+     * 获取节点的文本，只有调用该方法的时候才会创建String
+     *
+     * @param node 节点的id
+     * @return 节点的文本
+     */
+    @NonNull
+    public synchronized String getText(int node) {
+        int nodePosition = HEADER_SIZE + node * NODE_SIZE;
+        int textOffset = buffer.getInt(nodePosition);
+        int textLength = buffer.getInt(nodePosition + 4);
+        if (scratch.length < textLength) {
+            scratch = new byte[Math.max(textLength, scratch.length * 2)];
+        }
+        int start = stringPoolOffset + textOffset;
+        for (int i = 0; i < textLength; i++) {
+            scratch[i] = buffer.get(start + i);
+        }
+        return new String(scratch, 0, textLength, UTF_8);
+    }
+
+    /**
+     * 将节点的文本解码后写入缓冲区，不会创建String
+     *
+     * @param node       节点的id
+     * @param textBuffer 文本缓冲区
+     */
+    public void getText(int node, @NonNull TextBuffer textBuffer) {
+        int nodePosition = HEADER_SIZE + node * NODE_SIZE;
+        int position = stringPoolOffset + buffer.getInt(nodePosition);
+        int end = position + buffer.getInt(nodePosition + 4);
+        while (position < end) {
+            int b = buffer.get(position++) & 0xFF;
+            if (b < 0x80) {
+                textBuffer.append((char) b);
+            } else if (b < 0xE0) {
+                textBuffer.append((char) (((b & 0x1F) << 6) | (buffer.get(position++) & 0x3F)));
+            } else if (b < 0xF0) {
+                int c = ((b & 0x0F) << 12) | ((buffer.get(position) & 0x3F) << 6) | (buffer.get(position + 1) & 0x3F);
+                position += 2;
+                textBuffer.append((char) c);
+            } else {
+                // 4字节的UTF-8需要转为代理对
+                int codePoint = ((b & 0x07) << 18) | ((buffer.get(position) & 0x3F) << 12)
+                        | ((buffer.get(position + 1) & 0x3F) << 6) | (buffer.get(position + 2) & 0x3F);
+                position += 3;
+                textBuffer.append(Character.highSurrogate(codePoint));
+                textBuffer.append(Character.lowSurrogate(codePoint));
+            }
+        }
+    }
+}
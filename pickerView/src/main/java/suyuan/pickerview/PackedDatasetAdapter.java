@@ -0,0 +1,95 @@
+package suyuan.pickerview;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 直接从{@link PackedDataset}中读取数据的适配器，数据为节点的id
+ * 不会创建数据列表，只有绘制或者测量时才会将对应节点的文本直接解码到缓冲区，适合数据量很大的联动数据，
+ * 例如在上一列的onSelect中调用下一列的{@link #setParent(int)}
+ * <p>
+ * {@link #getDataList()}始终为空列表，需要通过{@link #getData(int)}和{@link #getDataSize()}访问数据
+ *
+ * @author suyuan
+ */
+public abstract class PackedDatasetAdapter extends PickerView.Adapter<Integer> {
+    private final PackedDataset dataset;
+    /**
+     * 当前显示的节点为[firstNode, firstNode + nodeCount)
+     */
+    private int firstNode;
+    private int nodeCount;
+
+    /**
+     * 显示数据集的根节点
+     *
+     * @param dataset 数据集
+     */
+    public PackedDatasetAdapter(@NonNull PackedDataset dataset) {
+        super();
+        this.dataset = dataset;
+        setRange(0, dataset.getRootCount());
+    }
+
+    @NonNull
+    public PackedDataset getDataset() {
+        return dataset;
+    }
+
+    /**
+     * 显示某个节点的子节点，需要调用{@link #notifyDataChanged()}刷新
+     *
+     * @param parentNode 父节点的id，为-1时显示根节点
+     */
+    public void setParent(int parentNode) {
+        if (parentNode == -1) {
+            setRange(0, dataset.getRootCount());
+        } else {
+            setRange(dataset.getFirstChild(parentNode), dataset.getChildCount(parentNode));
+        }
+    }
+
+    private void setRange(int firstNode, int nodeCount) {
+        this.firstNode = firstNode;
+        this.nodeCount = nodeCount;
+        modCount++;
+        setSelectedIndex(nodeCount == 0 ? -1 : 0);
+    }
+
+    @Override
+    public Integer getData(int position) {
+        return firstNode + position;
+    }
+
+    @Override
+    public int getDataSize() {
+        return nodeCount;
+    }
+
+    @Override
+    public String getText(Integer data, int position) {
+        return dataset.getText(firstNode + position);
+    }
+
+    @Override
+    public void writeText(int position, @NonNull TextBuffer buffer) {
+        dataset.getText(firstNode + position, buffer);
+    }
+
+    /**
+     * 获取某个位置的节点id，不会装箱
+     *
+     * @param position 位置
+     * @return 节点的id
+     */
+    public int getNode(int position) {
+        return firstNode + position;
+    }
+
+    /**
+     * 同一个数据集中，节点范围相同则数据相同
+     */
+    @Override
+    public long getDataVersion() {
+        return ((long) firstNode << 32) | nodeCount;
+    }
+}
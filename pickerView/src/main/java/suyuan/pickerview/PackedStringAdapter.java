@@ -0,0 +1,50 @@
+package suyuan.pickerview;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * 数据为{@link PackedStringList}的适配器，适合十万项级别的文本列表
+ * 绘制和测量时字符直接从字符池复制到缓冲区，不会创建视图或者String
+ *
+ * @author suyuan
+ */
+public abstract class PackedStringAdapter extends PickerView.Adapter<CharSequence> {
+
+    public PackedStringAdapter(@NonNull PackedStringList dataList) {
+        super(dataList);
+    }
+
+    public PackedStringAdapter(@NonNull PackedStringList dataList, int selectedIndex) {
+        super(dataList, selectedIndex);
+    }
+
+    @Override
+    public String getText(CharSequence data, int position) {
+        return data.toString();
+    }
+
+    @Override
+    public void writeText(int position, @NonNull TextBuffer buffer) {
+        List<CharSequence> dataList = getDataList();
+        if (dataList instanceof PackedStringList) {
+            ((PackedStringList) dataList).writeTo(position, buffer);
+        } else {
+            super.writeText(position, buffer);
+        }
+    }
+
+    /**
+     * 内容相同的列表版本相同，屏幕旋转后重新读取的列表也可以复用保存的文字宽度
+     */
+    @Override
+    public long getDataVersion() {
+        List<CharSequence> dataList = getDataList();
+        if (dataList instanceof PackedStringList) {
+            long hash = ((PackedStringList) dataList).getContentHash();
+            return hash == DATA_VERSION_UNKNOWN ? 0 : hash;
+        }
+        return DATA_VERSION_UNKNOWN;
+    }
+}
@@ -0,0 +1,319 @@
+package suyuan.pickerview;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * 不可变的字符串列表，所有字符串的字符连续存放在一个char数组中，另外只有一个int数组记录每一项的起始位置
+ * 每一项只占用字符本身和4字节的偏移，没有String和char数组的对象头，10万项的列表比List&lt;String&gt;节省数MB的内存
+ * <p>
+ * {@link #get(int)}返回不复制字符的CharSequence视图，绘制时使用{@link #writeTo(int, TextBuffer)}则不会创建任何对象
+ *
+ * @author suyuan
+ */
+public final class PackedStringList extends AbstractList<CharSequence> implements RandomAccess {
+    private final char[] chars;
+    /**
+     * 第i项为[offsets[i], offsets[i + 1])，长度为size + 1
+     */
+    private final int[] offsets;
+    private final int size;
+    private final long contentHash;
+
+    private PackedStringList(char[] chars, int[] offsets, int size) {
+        this.chars = chars;
+        this.offsets = offsets;
+        this.size = size;
+        // FNV-1a，包含每一项的边界，用作适配器的数据版本
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < offsets[size]; i++) {
+            hash = (hash ^ chars[i]) * 0x100000001b3L;
+        }
+        for (int i = 0; i <= size; i++) {
+            hash = (hash ^ offsets[i]) * 0x100000001b3L;
+        }
+        contentHash = hash;
+    }
+
+    /**
+     * 从集合中创建，先计算总长度，只分配一次内存
+     *
+     * @param texts 字符串集合
+     * @return 列表
+     */
+    @NonNull
+    public static PackedStringList of(@NonNull Collection<? extends CharSequence> texts) {
+        int length = 0;
+        for (CharSequence text : texts) {
+            length += text.length();
+        }
+        Builder builder = new Builder(texts.size(), length);
+        for (CharSequence text : texts) {
+            builder.add(text);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 按行读取，每一行为一项，行尾的\r会被去掉
+     * 字符直接读入缓冲区，不会为每一行创建String
+     *
+     * @param reader 读取的来源，读取完成后不会关闭
+     * @return 列表
+     * @throws IOException 读取失败
+     */
+    @NonNull
+    public static PackedStringList readLines(@NonNull Reader reader) throws IOException {
+        Builder builder = new Builder();
+        char[] buffer = new char[8192];
+        boolean isLineOpen = false;
+        boolean isLastCarriageReturn = false;
+        int count;
+        while ((count = reader.read(buffer)) != -1) {
+            int start = 0;
+            for (int i = 0; i < count; i++) {
+                if (buffer[i] == '\n') {
+                    int end = i > 0 && buffer[i - 1] == '\r' ? i - 1 : i;
+                    builder.appendChars(buffer, start, end - start);
+                    if (i == 0 && isLastCarriageReturn) {
+                        builder.trimLast();
+                    }
+                    builder.endItem();
+                    isLineOpen = false;
+                    start = i + 1;
+                }
+            }
+            if (start < count) {
+                builder.appendChars(buffer, start, count - start);
+                isLineOpen = true;
+            }
+            isLastCarriageReturn = buffer[count - 1] == '\r';
+        }
+        if (isLineOpen) {
+            if (isLastCarriageReturn) {
+                builder.trimLast();
+            }
+            builder.endItem();
+        }
+        return builder.build();
+    }
+
+    /**
+     * 按行读取，参考{@link #readLines(Reader)}
+     *
+     * @param inputStream 读取的来源，读取完成后不会关闭
+     * @param charset     编码
+     * @return 列表
+     * @throws IOException 读取失败
+     */
+    @NonNull
+    public static PackedStringList readLines(@NonNull InputStream inputStream, @NonNull Charset charset) throws IOException {
+        return readLines(new BufferedReader(new InputStreamReader(inputStream, charset)));
+    }
+
+    /**
+     * 获取某一项的视图，不会复制字符
+     */
+    @Override
+    public CharSequence get(int index) {
+        checkIndex(index);
+        return new Item(offsets[index], offsets[index + 1]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index 位置
+     * @return 某一项的长度
+     */
+    public int length(int index) {
+        checkIndex(index);
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * 将某一项的字符直接写入缓冲区，不会创建任何对象
+     *
+     * @param index  位置
+     * @param buffer 文本缓冲区
+     * @return buffer
+     */
+    @NonNull
+    public TextBuffer writeTo(int index, @NonNull TextBuffer buffer) {
+        checkIndex(index);
+        return buffer.append(chars, offsets[index], offsets[index + 1] - offsets[index]);
+    }
+
+    /**
+     * @return 所有项的字符总数
+     */
+    public int getCharCount() {
+        return offsets[size];
+    }
+
+    /**
+     * 根据内容计算的哈希，内容相同的列表哈希相同
+     *
+     * @return 哈希值
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+    }
+
+    /**
+     * 指向字符池中某一段的视图
+     */
+    private final class Item implements CharSequence {
+        private final int start;
+        private final int end;
+
+        Item(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + (end - start));
+            }
+            return chars[start + index];
+        }
+
+        @NonNull
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length());
+            }
+            return new Item(this.start + start, this.start + end);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return new String(chars, start, end - start);
+        }
+    }
+
+    /**
+     * 逐项构建列表，数组按需扩容，build时裁剪到实际大小
+     */
+    public static final class Builder {
+        private char[] chars;
+        private int[] offsets;
+        private int size = 0;
+        private int length = 0;
+
+        public Builder() {
+            this(16, 256);
+        }
+
+        /**
+         * @param expectedSize   预计的项数
+         * @param expectedLength 预计的字符总数
+         */
+        public Builder(int expectedSize, int expectedLength) {
+            chars = new char[Math.max(expectedLength, 16)];
+            offsets = new int[Math.max(expectedSize, 16) + 1];
+        }
+
+        /**
+         * 添加一项
+         *
+         * @param text 文本
+         * @return this
+         */
+        @NonNull
+        public Builder add(@NonNull CharSequence text) {
+            int count = text.length();
+            ensureCharCapacity(count);
+            if (text instanceof String) {
+                ((String) text).getChars(0, count, chars, length);
+            } else {
+                for (int i = 0; i < count; i++) {
+                    chars[length + i] = text.charAt(i);
+                }
+            }
+            length += count;
+            endItem();
+            return this;
+        }
+
+        /**
+         * 添加一项
+         *
+         * @param text   字符数组
+         * @param offset 起始位置
+         * @param count  字符数量
+         * @return this
+         */
+        @NonNull
+        public Builder add(@NonNull char[] text, int offset, int count) {
+            appendChars(text, offset, count);
+            endItem();
+            return this;
+        }
+
+        @NonNull
+        public PackedStringList build() {
+            return new PackedStringList(Arrays.copyOf(chars, length), Arrays.copyOf(offsets, size + 1), size);
+        }
+
+        /**
+         * 向当前项追加字符，调用{@link #endItem()}之后才算作一项
+         */
+        void appendChars(char[] text, int offset, int count) {
+            ensureCharCapacity(count);
+            System.arraycopy(text, offset, chars, length, count);
+            length += count;
+        }
+
+        /**
+         * 去掉当前项的最后一个字符，用于去掉跨越两次读取的\r\n中的\r
+         */
+        void trimLast() {
+            if (length > offsets[size]) {
+                length--;
+            }
+        }
+
+        void endItem() {
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            size++;
+            offsets[size] = length;
+        }
+
+        private void ensureCharCapacity(int count) {
+            if (length + count > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count));
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package suyuan.pickerview;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.Bundle;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
+import androidx.customview.widget.ExploreByTouchHelper;
+
+import java.util.List;
+
+/**
+ * PickerView的无障碍支持，以虚拟节点的形式只暴露当前可见的几行，节点的id就是数据的位置
+ * 节点在无障碍服务请求时才创建，数据量再大也不会为每一项创建AccessibilityNodeInfo
+ * <p>
+ * 控件本身支持向前和向后滚动，点击某一行会直接选中该行；滚动过程中的事件按照系统的间隔合并发送，
+ * 停止后只发送一次选中的事件
+ *
+ * @author suyuan
+ */
+final class PickerAccessibilityHelper extends ExploreByTouchHelper {
+    private final PickerView pickerView;
+    private final AccessibilityManager accessibilityManager;
+    private final TextBuffer textBuffer = new TextBuffer();
+    private final Rect bounds = new Rect();
+    private boolean isScrollEventPending = false;
+
+    private final Runnable sendScrollEventRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isScrollEventPending = false;
+            pickerView.sendAccessibilityEvent(AccessibilityEvent.TYPE_VIEW_SCROLLED);
+            // 可见的行和它们的位置都变了
+            invalidateRoot();
+        }
+    };
+
+    PickerAccessibilityHelper(@NonNull PickerView pickerView) {
+        super(pickerView);
+        this.pickerView = pickerView;
+        accessibilityManager = (AccessibilityManager) pickerView.getContext().getSystemService(Context.ACCESSIBILITY_SERVICE);
+    }
+
+    /**
+     * 滚动位置或者数据发生变化，一个间隔内最多发送一次滚动事件
+     */
+    void onScrollChanged() {
+        if (isScrollEventPending || accessibilityManager == null || !accessibilityManager.isEnabled()) {
+            return;
+        }
+        isScrollEventPending = true;
+        pickerView.postDelayed(sendScrollEventRunnable, ViewConfiguration.getSendRecurringAccessibilityEventsInterval());
+    }
+
+    /**
+     * PickerView离开窗口时取消还没有发送的滚动事件
+     */
+    void onDetachedFromWindow() {
+        if (isScrollEventPending) {
+            isScrollEventPending = false;
+            pickerView.removeCallbacks(sendScrollEventRunnable);
+        }
+    }
+
+    /**
+     * 选中的数据确定之后发送一次选中的事件
+     */
+    void onSelected() {
+        int selectedIndex = pickerView.getAdapter().getSelectedIndex();
+        if (selectedIndex != -1) {
+            sendEventForVirtualView(selectedIndex, AccessibilityEvent.TYPE_VIEW_SELECTED);
+        }
+    }
+
+    @Override
+    protected int getVirtualViewAt(float x, float y) {
+        float distance = pickerView.getItemDistance();
+        if (distance <= 0) {
+            return INVALID_ID;
+        }
+        int offset = pickerView.getRowOffsetAt(y);
+        int position = pickerView.getRowPosition(offset);
+        return position == -1 ? INVALID_ID : position;
+    }
+
+    @Override
+    protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+        int number = pickerView.getVisibleOtherTextNumber();
+        for (int offset = -number; offset <= number; offset++) {
+            int position = pickerView.getRowPosition(offset);
+            // 数据循环且数量很少时同一个位置可能出现多次，只暴露一次
+            if (position != -1 && !virtualViewIds.contains(position)) {
+                virtualViewIds.add(position);
+            }
+        }
+    }
+
+    @Override
+    protected void onPopulateNodeForVirtualView(int virtualViewId, @NonNull AccessibilityNodeInfoCompat node) {
+        PickerView.Adapter<?> adapter = pickerView.getAdapter();
+        int offset = findRowOffset(virtualViewId);
+        if (offset == Integer.MIN_VALUE) {
+            // 已经不可见或者数据已经变化，系统仍然要求节点有文本和位置
+            node.setText("");
+            bounds.setEmpty();
+            node.setBoundsInParent(bounds);
+            return;
+        }
+        pickerView.loadVisibleItemText(virtualViewId, textBuffer);
+        node.setText(textBuffer.toString());
+        // 滚轮模式下越靠近边缘的行越扁，上下边缘分别投影
+        int top = Math.max(0, Math.round(pickerView.getRowY(offset - 0.5f)));
+        int bottom = Math.min(pickerView.getHeight(), Math.round(pickerView.getRowY(offset + 0.5f)));
+        bounds.set(0, top, pickerView.getWidth(), Math.max(top, bottom));
+        node.setBoundsInParent(bounds);
+        boolean isSelected = virtualViewId == adapter.getSelectedIndex();
+        node.setSelected(isSelected);
+        if (!isSelected) {
+            node.setClickable(true);
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+        }
+    }
+
+    @Override
+    protected boolean onPerformActionForVirtualView(int virtualViewId, int action, @Nullable Bundle arguments) {
+        if (action == AccessibilityNodeInfoCompat.ACTION_CLICK && findRowOffset(virtualViewId) != Integer.MIN_VALUE) {
+            select(virtualViewId);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void onPopulateNodeForHost(@NonNull AccessibilityNodeInfoCompat node) {
+        boolean canScrollBackward = pickerView.getRowPosition(-1) != -1;
+        boolean canScrollForward = pickerView.getRowPosition(1) != -1;
+        node.setScrollable(canScrollBackward || canScrollForward);
+        if (canScrollBackward) {
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_SCROLL_BACKWARD);
+        }
+        if (canScrollForward) {
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_SCROLL_FORWARD);
+        }
+    }
+
+    @Override
+    public void onInitializeAccessibilityEvent(View host, AccessibilityEvent event) {
+        super.onInitializeAccessibilityEvent(host, event);
+        if (event.getEventType() != AccessibilityEvent.TYPE_VIEW_SCROLLED) {
+            return;
+        }
+        PickerView.Adapter<?> adapter = pickerView.getAdapter();
+        int number = pickerView.getVisibleOtherTextNumber();
+        event.setScrollable(true);
+        event.setItemCount(adapter.getDataSize());
+        event.setCurrentItemIndex(adapter.getSelectedIndex());
+        event.setFromIndex(Math.max(0, adapter.getSelectedIndex() - number));
+        event.setToIndex(Math.min(adapter.getDataSize() - 1, adapter.getSelectedIndex() + number));
+    }
+
+    @Override
+    public boolean performAccessibilityAction(View host, int action, Bundle args) {
+        int step;
+        if (action == AccessibilityNodeInfoCompat.ACTION_SCROLL_FORWARD) {
+            step = 1;
+        } else if (action == AccessibilityNodeInfoCompat.ACTION_SCROLL_BACKWARD) {
+            step = -1;
+        } else {
+            return super.performAccessibilityAction(host, action, args);
+        }
+        int position = pickerView.getRowPosition(step);
+        if (position == -1) {
+            return false;
+        }
+        select(position);
+        return true;
+    }
+
+    /**
+     * 与快速滚动一样直接跳到某个位置，然后回调onSelect
+     */
+    private void select(int position) {
+        pickerView.jumpToIndex(position);
+        pickerView.performSelect();
+    }
+
+    /**
+     * 找到某个位置当前所在的行，数据循环时取离中间最近的一行
+     *
+     * @param position 数据的位置
+     * @return 相对于选中行的偏移，不可见时为Integer.MIN_VALUE
+     */
+    private int findRowOffset(int position) {
+        if (position < 0 || position >= pickerView.getAdapter().getDataSize()) {
+            return Integer.MIN_VALUE;
+        }
+        int number = pickerView.getVisibleOtherTextNumber();
+        for (int i = 0; i <= number; i++) {
+            if (pickerView.getRowPosition(-i) == position) {
+                return -i;
+            }
+            if (pickerView.getRowPosition(i) == position) {
+                return i;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+}
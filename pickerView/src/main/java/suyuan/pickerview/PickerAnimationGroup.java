@@ -0,0 +1,129 @@
+package suyuan.pickerview;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+/**
+ * 由同一个帧回调驱动多个PickerView的回弹动画
+ * 组内所有正在回弹的PickerView每一帧只需要一次Choreographer回调，并且在同一帧中更新，不会出现相位不同步的情况
+ * 开启finishTogether之后，每个PickerView每一帧移动的距离与其剩余的距离成正比，所有PickerView会在同一帧结束回弹
+ * <p>
+ * 只能在主线程中使用，默认所有PickerView都使用{@link #getDefault()}
+ *
+ * @author suyuan
+ */
+public final class PickerAnimationGroup {
+    /**
+     * PickerView的speed是每10ms移动的距离，按照帧的实际间隔换算，保持与之前的回弹速度一致
+     */
+    private static final long STEP_NANOS = 10_000_000L;
+    private static PickerAnimationGroup defaultGroup;
+
+    private final boolean isFinishTogether;
+    private final ArrayList<PickerView> pickerViews = new ArrayList<>();
+    /**
+     * 每一帧复用的快照，回调onSelect时可能会修改pickerViews
+     */
+    private PickerView[] frameViews = new PickerView[0];
+    private boolean isFrameScheduled = false;
+    private long lastFrameTimeNanos;
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onFrame(frameTimeNanos);
+        }
+    };
+
+    /**
+     * @param isFinishTogether 组内的PickerView是否在同一帧结束回弹
+     */
+    public PickerAnimationGroup(boolean isFinishTogether) {
+        this.isFinishTogether = isFinishTogether;
+    }
+
+    /**
+     * 获取默认的动画组，各个PickerView独立结束回弹
+     *
+     * @return 默认的动画组
+     */
+    @NonNull
+    public static PickerAnimationGroup getDefault() {
+        if (defaultGroup == null) {
+            defaultGroup = new PickerAnimationGroup(false);
+        }
+        return defaultGroup;
+    }
+
+    public boolean isFinishTogether() {
+        return isFinishTogether;
+    }
+
+    /**
+     * @return 正在回弹的PickerView数量
+     */
+    public int getAnimatingCount() {
+        return pickerViews.size();
+    }
+
+    /**
+     * 开始驱动某个PickerView的回弹，已经在回弹中则不做处理
+     */
+    void start(PickerView pickerView) {
+        if (!pickerViews.contains(pickerView)) {
+            pickerViews.add(pickerView);
+        }
+        if (!isFrameScheduled) {
+            isFrameScheduled = true;
+            lastFrameTimeNanos = System.nanoTime();
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+
+    /**
+     * 停止驱动某个PickerView，组内没有PickerView之后帧回调不会再注册
+     */
+    void stop(PickerView pickerView) {
+        pickerViews.remove(pickerView);
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        isFrameScheduled = false;
+        int count = pickerViews.size();
+        if (count == 0) {
+            return;
+        }
+        long elapsedNanos = frameTimeNanos - lastFrameTimeNanos;
+        lastFrameTimeNanos = frameTimeNanos;
+        // 第一帧的时间戳可能早于start的时间，此时按照一步计算
+        float steps = elapsedNanos > 0 ? (float) elapsedNanos / STEP_NANOS : 1f;
+        if (frameViews.length < count) {
+            frameViews = new PickerView[Math.max(count, frameViews.length * 2)];
+        }
+        pickerViews.toArray(frameViews);
+        float maxRemaining = 0;
+        if (isFinishTogether) {
+            for (int i = 0; i < count; i++) {
+                maxRemaining = Math.max(maxRemaining, Math.abs(frameViews[i].getScrollOffset()));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            PickerView pickerView = frameViews[i];
+            frameViews[i] = null;
+            float step = pickerView.getSpeed() * steps;
+            if (maxRemaining > 0) {
+                step = step * Math.abs(pickerView.getScrollOffset()) / maxRemaining;
+            }
+            pickerView.stepRollBack(step);
+            if (!pickerView.isRollingBack()) {
+                pickerViews.remove(pickerView);
+            }
+        }
+        if (!pickerViews.isEmpty()) {
+            isFrameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
+    }
+}
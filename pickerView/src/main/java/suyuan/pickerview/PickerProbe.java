@@ -0,0 +1,24 @@
+package suyuan.pickerview;
+
+/**
+ * 观察PickerView内部操作的钩子，供基准测试统计一次交互的开销
+ * 通过{@link PickerView#setProbe(PickerProbe)}设置到某一个实例上，为null时不做任何统计，只在主线程中回调
+ *
+ * @author suyuan
+ */
+interface PickerProbe {
+    /**
+     * 向适配器获取了一次文本，使用预先计算好的文本时不回调
+     */
+    void onTextLoaded();
+
+    /**
+     * 执行了一次{@link PickerView#measureMaxTextWidth()}
+     */
+    void onMaxTextWidthMeasured();
+
+    /**
+     * 回调了一次适配器的onSelect
+     */
+    void onSelectDispatched();
+}
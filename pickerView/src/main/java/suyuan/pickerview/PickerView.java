@@ -4,29 +4,32 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.os.Build;
-import android.os.Handler;
-import android.os.Looper;
-import android.os.Message;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.SystemClock;
 import android.util.AttributeSet;
 import android.util.Log;
+import android.util.Property;
 import android.util.TypedValue;
+import android.view.KeyEvent;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.view.ViewCompat;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author suyuan
@@ -36,14 +39,96 @@ public class PickerView extends View {
     private Adapter adapter;
     private int selectedTextSize = 0;
     private int unselectedTextSize = 0;
-    private String selectedText;
     private Paint paint;
+    /**
+     * 测量和滚轮模式绘制时复用的文本缓冲区
+     */
+    private final TextBuffer otherTextBuffer = new TextBuffer();
+    /**
+     * 绘制每一项的方式，以及复用的绘制状态和准备好的内容的缓存
+     */
+    private ItemRenderer<?> itemRenderer = new TextItemRenderer();
+    private final ItemDrawState itemDrawState = new ItemDrawState(this);
+    private final ItemContentCache itemContentCache = new ItemContentCache();
+    /**
+     * 空闲时预取即将可见的项，为null时不预取；开启后可见项的文本也会被缓存
+     */
+    private ItemPrefetcher prefetcher;
+    private final ItemTextCache itemTextCache = new ItemTextCache();
+    private final TextBuffer prefetchTextBuffer = new TextBuffer();
 
     /**
      * 要绘制的其他文本的个数，2个的话最后会绘制出来5个文本
      * 中间1个，上下各2个
      */
     private int otherTextNumber = 5;
+    /**
+     * 是否根据控件的高度自动计算要绘制的其他文本的个数
+     * 只有在高度是EXACTLY的时候才会生效，否则控件的高度本身就是由otherTextNumber决定的
+     */
+    private boolean isOtherTextNumberAuto = false;
+    /**
+     * 实际绘制时使用的其他文本的个数，非自动模式下等于otherTextNumber
+     */
+    private int visibleOtherTextNumber = 5;
+    /**
+     * 绘制时复用的画布裁剪区域，用来剔除不可见的文本
+     */
+    private final Rect clipBounds = new Rect();
+    /**
+     * 是否以3D滚轮的样式绘制
+     */
+    private boolean isWheelMode = false;
+    /**
+     * 滚轮模式下的变换查找表，控件尺寸或者样式变化的时候才会重新创建
+     */
+    private WheelTransformTable wheelTransformTable;
+    private final Matrix wheelMatrix = new Matrix();
+    private final float[] wheelMatrixValues = new float[9];
+    /**
+     * 滚轮模式使用的画笔，尺寸和抗锯齿只在样式变化的时候配置，绘制时只有颜色或者透明度变化才修改
+     */
+    private final Paint wheelPaint = createTextPaint();
+    private float wheelBaseLineOffset;
+    private int wheelPaintColor;
+    private int wheelPaintAlpha;
+    /**
+     * 选中和未选中状态使用的画笔，只在样式变化的时候配置，绘制时不再修改
+     */
+    private final Paint selectedPaint = createTextPaint();
+    private final Paint unselectedPaint = createTextPaint();
+    /**
+     * 选中文字过渡时使用的画笔，只有量化后的过渡比例变化时才修改文字尺寸和透明度
+     */
+    private final Paint transitionSelectedPaint = createTextPaint();
+    private final Paint transitionUnselectedPaint = createTextPaint();
+    /**
+     * 过渡时文字尺寸、透明度和baseLine偏移的查找表
+     */
+    private TextStyleTable textStyleTable;
+    /**
+     * 文字的尺寸、颜色或者透明度发生了变化，需要重新配置画笔和查找表
+     */
+    private boolean isTextStyleDirty = true;
+    /**
+     * 过渡画笔当前对应的量化比例，-1代表还没有配置
+     */
+    private int transitionStep = -1;
+    private float selectedBaseLineOffset;
+    /**
+     * 是否通过画布缩放来实现选中文字的尺寸过渡
+     * 开启后过渡画笔的文字尺寸固定为选中文字的尺寸，glyph缓存中只会有选中和未选中两种尺寸
+     */
+    private boolean isCanvasTextScaleEnabled = false;
+    /**
+     * 快速滚动，为null时说明没有开启
+     */
+    private FastScroller fastScroller;
+    /**
+     * 无障碍的虚拟节点，只暴露可见的几行
+     */
+    private PickerAccessibilityHelper accessibilityHelper;
+    private float unselectedBaseLineOffset;
 
     /**
      * 用来判断现在是向上滑动还是向下滑动
@@ -61,6 +146,24 @@ public class PickerView extends View {
      * 代表手指向下滑动
      */
     public static final int MOVE_DOWN = -1;
+    /**
+     * 以下是配置变化的标记位，批量修改时合并到pendingConfigChanges中
+     * CONFIG_DISTANCE：文字尺寸或者间距变化，需要重新计算distance和高度
+     * CONFIG_STYLE：画笔需要重新配置
+     * CONFIG_TEXT_WIDTH：选中文字的尺寸变化，需要重新测量文字的最大宽度
+     * CONFIG_LAYOUT：只需要重新布局
+     * CONFIG_DRAW：只需要重绘
+     */
+    private static final int CONFIG_DISTANCE = 1;
+    private static final int CONFIG_STYLE = 1 << 1;
+    private static final int CONFIG_TEXT_WIDTH = 1 << 2;
+    private static final int CONFIG_LAYOUT = 1 << 3;
+    private static final int CONFIG_DRAW = 1 << 4;
+    /**
+     * beginUpdate的嵌套层数，大于0时配置的变化不会立即生效
+     */
+    private int updateDepth = 0;
+    private int pendingConfigChanges = 0;
     /**
      * 滑动距离
      */
@@ -74,7 +177,7 @@ public class PickerView extends View {
      */
     private int textPadding = 30;
     /**
-     * 自动回滚到中间的速度
+     * 自动回滚到中间的速度，每10ms移动的距离
      */
     private float speed = 2;
 
@@ -102,14 +205,75 @@ public class PickerView extends View {
      * 文字的最大宽度，该属性影响到空间的宽度
      */
     private float maxTextWidth;
-
+    /**
+     * 文字的最大宽度是否需要重新测量，设置适配器之后置为true，在下一次measure的时候再测量
+     * 这样从保存的状态恢复时，如果数据没有变化，就可以直接使用保存的宽度而跳过测量
+     */
+    private boolean isMaxTextWidthDirty = false;
+    /**
+     * 当前的最大宽度只是可见文本的宽度，后台测量还没有结束
+     */
+    private boolean isMaxTextWidthProvisional = false;
+    /**
+     * 恢复状态时适配器的数据还没有设置，暂存下来等设置适配器的时候再恢复
+     */
+    private SavedState pendingSavedState;
+    /**
+     * 数据量不少于该值时异步测量才会生效，数据量较少时同步测量的开销可以忽略
+     */
+    private static final int ASYNC_MEASURE_MIN_SIZE = 200;
+    /**
+     * 是否在后台线程中测量文字的宽度
+     */
+    private boolean isAsyncTextMeasureEnabled = false;
+    /**
+     * 预先计算好的文本和宽度，绘制时优先使用
+     */
+    private PrecomputedItemTexts precomputedTexts;
+    /**
+     * 每次开始测量都会加1，用来丢弃过期的异步测量结果
+     */
+    private int measureGeneration = 0;
 
     private float lastFingerTouchY;
+    private static final int INVALID_POINTER_ID = -1;
+    /**
+     * 当前跟随的手指，多指触摸时只跟随最后按下的手指，该手指抬起后切换到剩下的手指
+     */
+    private int activePointerId = INVALID_POINTER_ID;
+    private VelocityTracker velocityTracker;
+    /**
+     * 手指当前的滑动速度，单位为像素/秒，>0是向下滑，手指离开后为0
+     */
+    private float touchVelocityY = 0;
+    /**
+     * 是否请求不经过缓冲的触摸事件分发，开启后拖动时手指到画面的延迟可以减少一帧
+     */
+    private boolean isUnbufferedTouchEnabled = false;
     /**
      * 通过静态方法创建实例，线程池数量为3
      */
-    private static final ScheduledExecutorService scheduledExecutorService = new ScheduledThreadPoolExecutor(3);
-    private UpdateViewTask updateViewTask;
+    static final ScheduledExecutorService scheduledExecutorService = new ScheduledThreadPoolExecutor(3);
+    /**
+     * 驱动回弹的动画组，为null时使用{@link PickerAnimationGroup#getDefault()}
+     */
+    private PickerAnimationGroup animationGroup;
+    /**
+     * 是否正在回弹
+     */
+    private boolean isRollingBack = false;
+    /**
+     * 滚动时根据帧间隔降低绘制质量，为null时始终完整绘制
+     */
+    private QualityGovernor qualityGovernor;
+    /**
+     * 画笔当前是否开启了抗锯齿，与质量等级不一致时重新配置画笔
+     */
+    private boolean isTextAntiAlias = true;
+    /**
+     * 基准测试统计内部操作的钩子，为null时不统计
+     */
+    private PickerProbe probe;
     private int widthMeasureSpec;
     private int heightMeasureSpec;
     private float scale = 1f;
@@ -118,6 +282,30 @@ public class PickerView extends View {
      */
     private boolean isEnlarging = false;
 
+    private OnScrollProgressListener onScrollProgressListener;
+    /**
+     * 两次滚动进度回调之间的最小间隔，单位ms，为0则不限制
+     */
+    private long scrollProgressIntervalMillis = 0;
+    /**
+     * 是否只在选中的index发生变化时才回调滚动进度
+     */
+    private boolean isScrollProgressIndexOnly = false;
+    private long lastScrollProgressTime = 0;
+    private int lastScrollProgressIndex = -1;
+    private float lastScrollProgressPosition = Float.NaN;
+    /**
+     * 节流期间被跳过的进度在间隔结束时补发一次，保证停在中间位置时监听器也能收到最新的进度
+     */
+    private boolean isTrailingScrollProgressPending = false;
+    private final Runnable trailingScrollProgressRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isTrailingScrollProgressPending = false;
+            dispatchScrollProgress(true);
+        }
+    };
+
     public PickerView(Context context) {
         this(context, null);
     }
@@ -147,12 +335,24 @@ public class PickerView extends View {
         unselectedTextAlpha = typedArray.getFloat(R.styleable.PickerView_unselected_text_alpha, 0.5f);
         textPadding = typedArray.getDimensionPixelSize(R.styleable.PickerView_text_padding, 100);
         otherTextNumber = typedArray.getInteger(R.styleable.PickerView_otherTextNumber, 1);
+        visibleOtherTextNumber = otherTextNumber;
+        isOtherTextNumberAuto = typedArray.getBoolean(R.styleable.PickerView_auto_text_number, false);
+        isWheelMode = typedArray.getBoolean(R.styleable.PickerView_wheel_mode, false);
+        isCanvasTextScaleEnabled = typedArray.getBoolean(R.styleable.PickerView_canvas_text_scale, false);
+        if (typedArray.getBoolean(R.styleable.PickerView_fast_scroll, false)) {
+            fastScroller = new FastScroller(this);
+        }
+        isUnbufferedTouchEnabled = typedArray.getBoolean(R.styleable.PickerView_unbuffered_touch, false);
+        if (typedArray.getBoolean(R.styleable.PickerView_prefetch, false)) {
+            prefetcher = new ItemPrefetcher(this);
+        }
         Log.d(TAG, "init: textPadding:" + textPadding);
         Log.d(TAG, "init: selectedTextSize:" + selectedTextSize);
         Log.d(TAG, "init: unselectedTextSize:" + unselectedTextSize);
         Log.d(TAG, "init: selectedTextColor:" + selectedTextColor);
         Log.d(TAG, "init: unselectedTextColor:" + unselectedTextColor);
         isDataRecycled = typedArray.getBoolean(R.styleable.PickerView_recycle_data, true);
+        isAsyncTextMeasureEnabled = typedArray.getBoolean(R.styleable.PickerView_async_text_measure, false);
         speed = typedArray.getFloat(R.styleable.PickerView_speed, 2f);
         distance = textPadding + (selectedTextSize + unselectedTextSize) / 2f;
         // 设置抗锯齿，不设置也没关系
@@ -176,6 +376,8 @@ public class PickerView extends View {
             }
         };
         typedArray.recycle();
+        accessibilityHelper = new PickerAccessibilityHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, accessibilityHelper);
     }
 
 
@@ -183,39 +385,124 @@ public class PickerView extends View {
      * 选择事件
      */
     public void performSelect() {
-        if (adapter != null) {
+        if (hasSelectedData()) {
+            if (probe != null) {
+                probe.onSelectDispatched();
+            }
             adapter.onSelect(adapter.getData(adapter.selectedIndex), adapter.selectedIndex);
+            accessibilityHelper.onSelected();
+        }
+    }
+
+
+    /**
+     * 是否有选中的数据，过滤没有结果或者级联的列正在加载时选中的index为-1，此时不能滚动也不能回调onSelect
+     *
+     * @return 是否有选中的数据
+     */
+    private boolean hasSelectedData() {
+        return adapter != null && adapter.selectedIndex != -1 && adapter.getDataSize() != 0;
+    }
+
+    /**
+     * 获取当前的滚动位置，整数部分为选中的index，小数部分为偏离中心的比例
+     * 比如2.5代表正处于index为2和3的两个数据的正中间
+     *
+     * @return 当前的滚动位置，没有数据时返回-1
+     */
+    public float getScrollPosition() {
+        int size = adapter.getDataSize();
+        if (adapter.selectedIndex == -1 || size == 0) {
+            return -1;
+        }
+        // moveLength为正说明内容向下移动，也就是上一个数据正在靠近中间
+        float position = adapter.selectedIndex - moveLength / distance;
+        if (isDataRecycled) {
+            if (position < 0) {
+                position += size;
+            } else if (position >= size) {
+                position -= size;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * 派发滚动进度，按照设置的最大频率进行节流
+     * 该方法在滑动和回弹的每一帧都会调用，所以不能有任何对象的创建
+     *
+     * @param force 为true时忽略节流，用于回弹结束时保证最终位置一定会被回调
+     */
+    private void dispatchScrollProgress(boolean force) {
+        accessibilityHelper.onScrollChanged();
+        if (onScrollProgressListener == null) {
+            return;
         }
+        int index = adapter.selectedIndex;
+        if (isScrollProgressIndexOnly && index == lastScrollProgressIndex) {
+            return;
+        }
+        float position = getScrollPosition();
+        if (position == lastScrollProgressPosition) {
+            return;
+        }
+        long now = SystemClock.uptimeMillis();
+        if (!force && now - lastScrollProgressTime < scrollProgressIntervalMillis) {
+            if (!isTrailingScrollProgressPending) {
+                isTrailingScrollProgressPending = true;
+                postDelayed(trailingScrollProgressRunnable, lastScrollProgressTime + scrollProgressIntervalMillis - now);
+            }
+            return;
+        }
+        cancelTrailingScrollProgress();
+        lastScrollProgressTime = now;
+        lastScrollProgressIndex = index;
+        lastScrollProgressPosition = position;
+        onScrollProgressListener.onScrollProgress(this, position);
     }
 
+    private void cancelTrailingScrollProgress() {
+        if (isTrailingScrollProgressPending) {
+            isTrailingScrollProgressPending = false;
+            removeCallbacks(trailingScrollProgressRunnable);
+        }
+    }
 
     /**
-     * 处理回弹时候的动作
+     * 处理回弹时候的动作，按照speed回弹一步
      */
     protected void updateView() {
-        Log.d(TAG, "updateView: start");
-        if (Math.abs(moveLength) < speed) {
-            Log.d(TAG, "updateView: moveLenIf" + moveLength);
+        stepRollBack(speed);
+    }
+
+    /**
+     * 回弹一步，由{@link PickerAnimationGroup}每一帧调用
+     * 剩余的距离小于step时回弹结束，回调onSelect
+     *
+     * @param step 这一步移动的距离
+     */
+    void stepRollBack(float step) {
+        if (!isRollingBack) {
+            return;
+        }
+        if (Math.abs(moveLength) <= step) {
+            Log.d(TAG, "stepRollBack: 回弹结束");
             moveLength = 0;
-            if (updateViewTask != null) {
-                Log.d(TAG, "handleMessage: 线程关闭");
-                updateViewTask.isStop = true;
-                performSelect();
-            }
+            isRollingBack = false;
+            dispatchScrollProgress(true);
+            performSelect();
         } else {
-            Log.d(TAG, "updateView: moveLenBefore:" + moveLength);
             // 如果移动的距离为负，代表指针向上移动，也就是执行向上刷的动作，内容向下移动
             // 此时回弹需要speed为正，绘制的text是从上方回弹到中间点，这个状态实际上是MOVE_DOWN的状态一样
             // 距离为正则相反
             if (moveLength < 0) {
-                moveLength += speed;
+                moveLength += step;
                 direction = MOVE_DOWN;
             } else {
-                moveLength -= speed;
+                moveLength -= step;
                 direction = MOVE_UP;
             }
-            Log.d(TAG, "updateView: direction:" + direction);
-            Log.d(TAG, "updateView: moveLenAfter:" + moveLength);
+            dispatchScrollProgress(false);
         }
         invalidate();
     }
@@ -226,11 +513,163 @@ public class PickerView extends View {
      * 因为每一个data显示的文本是根据监听器的getText来获得
      */
     public void measureMaxTextWidth() {
+        if (probe != null) {
+            probe.onMaxTextWidthMeasured();
+        }
+        float maxWidth = 0;
+        for (int i = 0; i < adapter.getDataSize(); i++) {
+            loadItemText(i, otherTextBuffer);
+            float textWidth = paint.measureText(otherTextBuffer.getChars(), 0, otherTextBuffer.length());
+            if (textWidth > maxWidth) {
+                maxWidth = textWidth;
+            }
+        }
+        maxTextWidth = maxWidth;
+        isMaxTextWidthProvisional = false;
+    }
+
+
+    /**
+     * 获取某个位置要显示的文本，如果有预先计算好的文本，那么直接使用
+     *
+     * @param position 数据的位置
+     * @return 要显示的文本
+     */
+    private String getItemText(int position) {
+        PrecomputedItemTexts texts = precomputedTexts;
+        if (texts != null && texts.adapter == adapter && texts.adapterModCount == adapter.modCount) {
+            return texts.getText(position);
+        }
+        if (probe != null) {
+            probe.onTextLoaded();
+        }
+        return adapter.getText(adapter.getData(position), position);
+    }
+
+    /**
+     * 将某个位置要显示的文本写入缓冲区，有预先计算好的文本时直接复制，否则由适配器写入
+     *
+     * @param position 数据的位置
+     * @param buffer   文本缓冲区
+     */
+    void loadItemText(int position, TextBuffer buffer) {
+        buffer.clear();
+        PrecomputedItemTexts texts = precomputedTexts;
+        if (texts != null && texts.adapter == adapter && texts.adapterModCount == adapter.modCount) {
+            buffer.append(texts.getText(position));
+            return;
+        }
+        if (probe != null) {
+            probe.onTextLoaded();
+        }
+        adapter.writeText(position, buffer);
+    }
+
+    /**
+     * 获取绘制时要显示的文本，开启预取后先从缓存中查找，避免每一帧都向适配器获取
+     *
+     * @param position 数据的位置
+     * @param buffer   文本缓冲区
+     */
+    void loadVisibleItemText(int position, TextBuffer buffer) {
+        PrecomputedItemTexts texts = precomputedTexts;
+        if (prefetcher == null || texts != null && texts.adapter == adapter && texts.adapterModCount == adapter.modCount) {
+            loadItemText(position, buffer);
+            return;
+        }
+        buffer.clear();
+        if (itemTextCache.get(adapter, position, buffer)) {
+            return;
+        }
+        loadItemText(position, buffer);
+        itemTextCache.put(adapter, position, buffer, getItemCacheCapacity());
+    }
+
+    /**
+     * 可见项上下各多缓存一项，开启预取时再加上预取的项数
+     */
+    private int getItemCacheCapacity() {
+        return visibleOtherTextNumber * 2 + 3 + (prefetcher != null ? ItemPrefetcher.MAX_ROWS : 0);
+    }
+
+    /**
+     * 预取滚动方向上可见范围之外的某一项：获取文本并缓存，用绘制时的画笔测量一次，
+     * 使文字排版的结果进入系统的缓存，最后让ItemRenderer准备好内容
+     *
+     * @param step   1为index增大的方向，-1为index减小的方向
+     * @param offset 可见范围之外的第几项，从1开始
+     * @return 是否还可以继续预取，到达数据的边界时为false
+     */
+    boolean prefetchRow(int step, int offset) {
+        if (adapter == null || isTextStyleDirty) {
+            return false;
+        }
+        int size = adapter.getDataSize();
+        // 数据较少时所有项都已经可见或者已经预取过了
+        if (visibleOtherTextNumber * 2 + 1 + offset > size) {
+            return false;
+        }
+        int position = getRealSelectedIndex(adapter.selectedIndex + step * (visibleOtherTextNumber + offset));
+        if (position == -1) {
+            return false;
+        }
+        loadVisibleItemText(position, prefetchTextBuffer);
+        Paint measurePaint = isWheelMode ? selectedPaint : unselectedPaint;
+        measurePaint.measureText(prefetchTextBuffer.getChars(), 0, prefetchTextBuffer.length());
+        if (!isWheelMode) {
+            itemContentCache.get(this, itemRenderer, position, getItemCacheCapacity());
+        }
+        return true;
+    }
+
+    /**
+     * 设置是否在主线程空闲时预取即将可见的项
+     * 选中的index变化后，按照滚动的方向和手指的速度预取可见范围之外的2到8项的文本、文字排版和ItemRenderer的内容，
+     * 每次空闲最多使用{@link #setPrefetchBudget(long)}的时间
+     * 开启后可见项的文本会被缓存，适配器的文本变化时需要调用{@link Adapter#notifyDataChanged()}
+     *
+     * @param isPrefetchEnabled 是否开启
+     */
+    public void setPrefetchEnabled(boolean isPrefetchEnabled) {
+        if (isPrefetchEnabled == (prefetcher != null)) {
+            return;
+        }
+        if (isPrefetchEnabled) {
+            prefetcher = new ItemPrefetcher(this);
+        } else {
+            prefetcher.cancel();
+            prefetcher = null;
+            itemTextCache.invalidate();
+        }
+    }
+
+    public boolean isPrefetchEnabled() {
+        return prefetcher != null;
+    }
+
+    /**
+     * 设置每次空闲时预取可以使用的时间
+     *
+     * @param budgetNanos 时间预算，单位纳秒，默认为2ms
+     */
+    public void setPrefetchBudget(long budgetNanos) {
+        if (prefetcher != null) {
+            prefetcher.setBudgetNanos(budgetNanos);
+        }
+    }
+
+    /**
+     * 只测量当前可见的文本，作为异步测量结束之前临时使用的最大宽度
+     */
+    private void measureProvisionalTextWidth() {
         float maxWidth = 0;
-        for (int i = 0; i < adapter.dataList.size(); i++) {
-            String text = adapter.getText(adapter.getData(i), i);
-            float textWidth = paint.measureText(text);
-            Log.d(TAG, "setData: " + text + "  width:" + textWidth);
+        for (int i = -visibleOtherTextNumber; i <= visibleOtherTextNumber; i++) {
+            int position = getRealSelectedIndex(adapter.selectedIndex + i);
+            if (position == -1) {
+                continue;
+            }
+            loadItemText(position, otherTextBuffer);
+            float textWidth = paint.measureText(otherTextBuffer.getChars(), 0, otherTextBuffer.length());
             if (textWidth > maxWidth) {
                 maxWidth = textWidth;
             }
@@ -238,12 +677,50 @@ public class PickerView extends View {
         maxTextWidth = maxWidth;
     }
 
+    /**
+     * 在后台线程中测量所有的文本，测量结束后回到主线程，如果最大宽度发生变化则只请求一次重新布局
+     */
+    private void measureTextAsync() {
+        final int generation = measureGeneration;
+        final Adapter measuringAdapter = adapter;
+        // Paint不是线程安全的，后台线程使用一份拷贝
+        final Paint measurePaint = new Paint(paint);
+        scheduledExecutorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                final PrecomputedItemTexts result = PrecomputedItemTexts.create(measuringAdapter, measurePaint);
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        onTextsPrecomputed(generation, result);
+                    }
+                });
+            }
+        });
+    }
+
+    private void onTextsPrecomputed(int generation, PrecomputedItemTexts result) {
+        if (generation != measureGeneration || !result.isValidFor(adapter, selectedTextSize)) {
+            Log.d(TAG, "onTextsPrecomputed: 测量结果已过期");
+            return;
+        }
+        precomputedTexts = result;
+        isMaxTextWidthProvisional = false;
+        if (result.getMaxWidth() != maxTextWidth) {
+            maxTextWidth = result.getMaxWidth();
+            requestLayout();
+        }
+        invalidate();
+    }
 
     /**
      * 获取下一个data
      */
     private void moveSelectedIndexDown() {
-        int size = adapter.dataList.size();
+        if (!hasSelectedData()) {
+            return;
+        }
+        int size = adapter.getDataSize();
         int selectedIndex = adapter.selectedIndex;
         if (isDataRecycled) {
             if (selectedIndex == size - 1) {
@@ -256,13 +733,19 @@ public class PickerView extends View {
                 adapter.selectedIndex++;
             }
         }
+        if (prefetcher != null) {
+            prefetcher.schedule(1, touchVelocityY, distance);
+        }
     }
 
     /**
      * 获取前一个data
      */
     private void moveSelectedIndexUp() {
-        int size = adapter.dataList.size();
+        if (!hasSelectedData()) {
+            return;
+        }
+        int size = adapter.getDataSize();
         int selectedIndex = adapter.selectedIndex;
         if (isDataRecycled) {
             if (selectedIndex == 0) {
@@ -275,6 +758,9 @@ public class PickerView extends View {
                 adapter.selectedIndex--;
             }
         }
+        if (prefetcher != null) {
+            prefetcher.schedule(-1, touchVelocityY, distance);
+        }
     }
 
     /**
@@ -285,12 +771,15 @@ public class PickerView extends View {
      * @return 真实要显示的下标
      */
     private int getRealSelectedIndex(int index) {
-        int size = adapter.dataList.size();
+        int size = adapter.getDataSize();
+        if (size == 0) {
+            return -1;
+        }
         if (isDataRecycled) {
-            if (index >= size) {
-                index = index % size;
-            } else if (index < 0) {
-                index = size + index;
+            // 根据高度自动计算的行数可能超过数据的数量，偏移可能跨越多圈，所以取模后再修正为非负数
+            index %= size;
+            if (index < 0) {
+                index += size;
             }
         } else {
             if (index >= size) {
@@ -314,6 +803,7 @@ public class PickerView extends View {
         int heightMode = MeasureSpec.getMode(heightMeasureSpec);
         int heightSize = MeasureSpec.getSize(heightMeasureSpec);
         Log.d(TAG, "onMeasure: heightSize:" + heightSize);
+        ensureMaxTextWidth();
         // 真正的宽高
         int width = 0;
         int height = 0;
@@ -324,6 +814,10 @@ public class PickerView extends View {
             // 宽度是padding + 最大的文字宽度 + 1，这里+1是因为最大文字宽度从float转int类型，大概率会被除去小数，所以补1来保证实际宽度 >= 真实宽度
             // 且误差在1px以内，忽略不计
             width = width + getPaddingStart() + getPaddingEnd() + (int) maxTextWidth + 1;
+            if (fastScroller != null) {
+                // 为快速滚动的索引条预留宽度，避免索引条遮挡文字
+                width += fastScroller.getReservedWidth();
+            }
             // WRAP_CONTENT要找到更小的size
             width = Math.min(width, widthSize);
         }
@@ -334,6 +828,11 @@ public class PickerView extends View {
             height = height + getPaddingTop() + getPaddingBottom() + selectedTextSize + (unselectedTextSize + textPadding) * otherTextNumber * 2;
             height = Math.min(height, heightSize);
         }
+        if (isOtherTextNumberAuto && heightMode == MeasureSpec.EXACTLY) {
+            visibleOtherTextNumber = computeAutoOtherTextNumber(height);
+        } else {
+            visibleOtherTextNumber = otherTextNumber;
+        }
         setMeasuredDimension(width, height);
         viewHeight = height;
         viewWidth = width;
@@ -341,12 +840,110 @@ public class PickerView extends View {
     }
 
 
+    /**
+     * 根据控件的高度计算一边需要绘制的文本个数
+     * 滑动的时候文本最多偏移半个distance，所以要多算半个distance，保证滑动时边缘的文本也能被绘制出来
+     *
+     * @param height 控件的高度
+     * @return 一边需要绘制的文本个数
+     */
+    private int computeAutoOtherTextNumber(int height) {
+        if (distance <= 0) {
+            return otherTextNumber;
+        }
+        return (int) Math.ceil((height / 2f + distance / 2f) / distance);
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        if (qualityGovernor != null && isScrolling()) {
+            qualityGovernor.onScrollDraw();
+        }
         // 根据index绘制view, 如果selectedIndex 为 -1说明没有数据
         if (adapter.selectedIndex != -1) {
-            drawData(canvas);
+            ensureMaxTextWidth();
+            if (isWheelMode) {
+                drawWheelData(canvas);
+            } else {
+                drawData(canvas);
+            }
+        }
+        if (fastScroller != null) {
+            fastScroller.draw(canvas);
+        }
+    }
+
+    private static Paint createTextPaint() {
+        Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setStyle(Paint.Style.FILL);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        return textPaint;
+    }
+
+    /**
+     * 如果文字的样式发生了变化，重新配置各个状态的画笔以及过渡的查找表
+     */
+    private void ensureTextStyle() {
+        if (!isTextStyleDirty) {
+            return;
+        }
+        isTextStyleDirty = false;
+        // 样式变化后ItemRenderer准备的内容可能依赖于文字尺寸，需要重新准备
+        itemContentCache.invalidate();
+        isTextAntiAlias = getQualityLevel() < QualityGovernor.LEVEL_NO_ANTI_ALIAS;
+        selectedPaint.setAntiAlias(isTextAntiAlias);
+        unselectedPaint.setAntiAlias(isTextAntiAlias);
+        transitionSelectedPaint.setAntiAlias(isTextAntiAlias);
+        transitionUnselectedPaint.setAntiAlias(isTextAntiAlias);
+        wheelPaint.setAntiAlias(isTextAntiAlias);
+        paint.setAntiAlias(isTextAntiAlias);
+        Paint.FontMetricsInt fmi = new Paint.FontMetricsInt();
+        selectedPaint.setTextSize(selectedTextSize);
+        selectedPaint.setColor(selectedTextColor);
+        selectedPaint.setAlpha((int) (selectedTextAlpha * 255));
+        selectedPaint.getFontMetricsInt(fmi);
+        selectedBaseLineOffset = -(fmi.bottom + fmi.top) / 2f;
+        unselectedPaint.setTextSize(unselectedTextSize);
+        unselectedPaint.setColor(unselectedTextColor);
+        unselectedPaint.setAlpha((int) (unselectedTextAlpha * 255));
+        unselectedPaint.getFontMetricsInt(fmi);
+        unselectedBaseLineOffset = -(fmi.bottom + fmi.top) / 2f;
+        // 滚轮模式下所有文本都按照选中文字的尺寸绘制，缩放来自查找表
+        wheelPaint.setTextSize(selectedTextSize);
+        wheelPaint.getFontMetricsInt(fmi);
+        wheelBaseLineOffset = -(fmi.bottom + fmi.top) / 2f;
+        wheelPaintColor = selectedTextColor;
+        wheelPaint.setColor(wheelPaintColor);
+        wheelPaintAlpha = wheelPaint.getAlpha();
+        textStyleTable = new TextStyleTable(transitionSelectedPaint, selectedTextSize, unselectedTextSize, selectedTextAlpha, unselectedTextAlpha);
+        transitionSelectedPaint.setColor(selectedTextColor);
+        transitionUnselectedPaint.setColor(unselectedTextColor);
+        if (isCanvasTextScaleEnabled) {
+            // 画布缩放模式下过渡画笔的尺寸不再改变
+            transitionSelectedPaint.setTextSize(selectedTextSize);
+            transitionUnselectedPaint.setTextSize(selectedTextSize);
+        }
+        transitionStep = -1;
+    }
+
+    /**
+     * 将过渡画笔配置为某个量化比例对应的尺寸和透明度，比例没有变化时不做任何修改
+     *
+     * @param step 量化后的过渡比例
+     */
+    private void applyTransitionStep(int step) {
+        if (step == transitionStep) {
+            return;
+        }
+        transitionStep = step;
+        int alpha = textStyleTable.getAlpha(step);
+        transitionSelectedPaint.setAlpha(alpha);
+        transitionUnselectedPaint.setAlpha(alpha);
+        if (!isCanvasTextScaleEnabled) {
+            float size = textStyleTable.getTextSize(step);
+            transitionSelectedPaint.setTextSize(size);
+            transitionUnselectedPaint.setTextSize(size);
         }
     }
 
@@ -356,6 +953,7 @@ public class PickerView extends View {
      * @param canvas 绘制的画布
      */
     private void drawData(Canvas canvas) {
+        ensureTextStyle();
         // text居中绘制，要做到居中绘制必须要算出来baseLine，也就是要将字体的尺寸纳入计算, y应该是中线的 坐标
         float x = (float) (viewWidth / 2.0);
         float y = (float) (viewHeight / 2.0 + moveLength);
@@ -369,150 +967,379 @@ public class PickerView extends View {
         }
         //存储当前的scale状态
         lastScale = scale;
-        // 根据比例获得当前应该draw出来的size和alpha
-        float size = (selectedTextSize - unselectedTextSize) * (1 - scale) + unselectedTextSize;
-        // 设置size和alpha
-        paint.setTextSize(size);
-        paint.setColor(selectedTextColor);
-        paint.setAlpha((int) (((selectedTextAlpha - unselectedTextAlpha) * (1 - scale) + unselectedTextAlpha) * 255));
-        Paint.FontMetricsInt fmi = paint.getFontMetricsInt();
-        //baseLine 实际上是文字的左下角的Y坐标
-        float baseLine = (float) (y - (fmi.bottom + fmi.top) / 2.0);
-        //drawText的y参数是文字左下角坐标, 所以前面必须计算出来文字中线的坐标
-        selectedText = adapter.getText(adapter.getSelectedData(), adapter.selectedIndex);
-        int startX = (int) (x - maxTextWidth / 2);
-        int endX = (int) (x + maxTextWidth / 2);
-        int endY = (int) (y + size / 2.0);
-        int startY = (int) (endY - size);
-        //颜色的scale需要两倍，要做到走了一半的时候颜色就都已经褪掉了
-        int changedY = (int) ((1 - scale) * size);
-        //向下滑，此时是向上绘制，所以渐变层是底部向上渐变
-        if (direction == MOVE_DOWN) {
-            Log.d(TAG, "drawData: 正在向下滑");
-            //如果向下滑的时候，目前的状态是正在扩大，那么渐变层是从底部开始, 这个状态说明中间的text正在变大，该text要成为中间的数据来展示
-            if (isEnlarging) {
-                drawGradientTextFromBottom(canvas, startX, startY, endX, endY, changedY, x, baseLine);
-            } else {
-                //如果向下滑的时候，状态是缩放，那么渐变层从顶部开始，这个状态说明是中间的text开始变小，准备切换成上一个text
-                drawGradientTextFromTop(canvas, startX, startY, endX, endY, changedY, x, baseLine);
-            }
-        } else if (direction == MOVE_UP) {
-            Log.d(TAG, "drawData: 正在向上滑");
-            //如果向上滑的时候，目前状态正在扩大，那么渐变层从顶部开始，这个状态说明中间的text开始变大，该text要成为中间的数据来展示
-            if (isEnlarging) {
-                drawGradientTextFromTop(canvas, startX, startY, endX, endY, changedY, x, baseLine);
+        // 根据比例从查找表中获得当前应该draw出来的size，量化后为0说明没有发生过渡，直接用选中的画笔绘制
+        int qualityLevel = getQualityLevel();
+        int step = qualityLevel >= QualityGovernor.LEVEL_FIXED_TEXT_SIZE ? 0 : TextStyleTable.getStep(scale);
+        ItemDrawState state = itemDrawState;
+        state.reset(adapter.selectedIndex);
+        state.centerX = x;
+        state.centerY = y;
+        state.fraction = scale;
+        state.isSelectedRow = true;
+        state.isTransition = step != 0 && qualityLevel < QualityGovernor.LEVEL_NO_GRADIENT;
+        state.isMovingDown = direction == MOVE_DOWN;
+        state.isEnlarging = isEnlarging;
+        state.itemWidth = maxTextWidth;
+        state.itemHeight = distance;
+        state.textScale = 1f;
+        if (step == 0) {
+            state.textSize = selectedTextSize;
+            state.baseLine = y + selectedBaseLineOffset;
+            state.selectedPaint = selectedPaint;
+            state.unselectedPaint = unselectedPaint;
+        } else {
+            applyTransitionStep(step);
+            float size = textStyleTable.getTextSize(step);
+            state.textSize = size;
+            //baseLine 实际上是文字的左下角的Y坐标
+            //drawText的y参数是文字左下角坐标, 所以前面必须计算出来文字中线的坐标
+            // 画布缩放模式下文字按照选中的尺寸绘制，再以文字中点为中心缩放到size
+            if (isCanvasTextScaleEnabled) {
+                state.baseLine = y + selectedBaseLineOffset;
+                state.textScale = selectedTextSize > 0 ? size / selectedTextSize : 1f;
             } else {
-                //如果向上滑的时候，目前的状态是缩放，那么渐变层从底部开始，这个状态说明中间的text开始变小，准备切换成下一个text
-                drawGradientTextFromBottom(canvas, startX, startY, endX, endY, changedY, x, baseLine);
+                state.baseLine = y + textStyleTable.getBaseLineOffset(step);
             }
-
+            state.selectedPaint = transitionSelectedPaint;
+            state.unselectedPaint = transitionUnselectedPaint;
         }
-        // 绘制上下的text
-        for (int i = 1; i <= otherTextNumber; i++) {
+        renderItem(canvas, state);
+        // 绘制上下的text，完全处于裁剪区域之外的text不进行绘制，且更远的text也一定不可见，直接结束
+        canvas.getClipBounds(clipBounds);
+        // 文字的实际高度不会超过文字尺寸，这里留出一倍的余量
+        float rowHalfHeight = unselectedTextSize;
+        int otherNumber = qualityLevel >= QualityGovernor.LEVEL_FEWER_ROWS
+                ? Math.max(1, visibleOtherTextNumber / 2) : visibleOtherTextNumber;
+        for (int i = 1; i <= otherNumber; i++) {
+            if (y - distance * i + rowHalfHeight < clipBounds.top) {
+                break;
+            }
             drawOtherData(canvas, i, MOVE_DOWN, y);
+        }
+        for (int i = 1; i <= otherNumber; i++) {
+            if (y + distance * i - rowHalfHeight > clipBounds.bottom) {
+                break;
+            }
             drawOtherData(canvas, i, MOVE_UP, y);
         }
-        Log.d(TAG, "drawData: 结束");
 
     }
 
 
     /**
-     * 绘制出上下其他的Text
+     * 以3D滚轮的样式绘制所有可见的data
+     * 所有文本都按照选中文字的尺寸绘制，旋转、缩放和位置都来自预先计算的查找表，每一行只需要查表和concat
      *
-     * @param canvas
-     * @param count   绘制上、下的第count个text
-     * @param type    用来判断是绘制上方还是下方的数据，MOVE_DOWN是绘制上方的数据
-     * @param centerY 选中的text的中点Y坐标，以该坐标为基准算出来其他text的中点Y坐标
+     * @param canvas 绘制的画布
      */
-    private void drawOtherData(Canvas canvas, int count, int type, float centerY) {
+    private void drawWheelData(Canvas canvas) {
+        WheelTransformTable table = ensureWheelTransformTable();
+        int maxOffset = table.getMaxOffset();
+        ensureTextStyle();
+        // 文本以原点为中心绘制，baseLine是相对于中点的偏移
+        float baseLine = wheelBaseLineOffset;
+        int rowNumber = (int) Math.ceil(maxOffset / distance) + 1;
+        for (int i = -rowNumber; i <= rowNumber; i++) {
+            int position = getRealSelectedIndex(adapter.selectedIndex + i);
+            if (position == -1) {
+                continue;
+            }
+            int offset = Math.round(i * distance + moveLength);
+            if (offset < -maxOffset || offset > maxOffset) {
+                continue;
+            }
+            float alpha = table.getAlpha(offset);
+            if (alpha <= 0) {
+                continue;
+            }
+            setWheelPaintStyle(table.getFraction(offset) < 0.5f ? selectedTextColor : unselectedTextColor, (int) (alpha * 255));
+            table.getMatrix(offset, wheelMatrix, wheelMatrixValues);
+            canvas.save();
+            canvas.concat(wheelMatrix);
+            loadVisibleItemText(position, otherTextBuffer);
+            canvas.drawText(otherTextBuffer.getChars(), 0, otherTextBuffer.length(), 0, baseLine, wheelPaint);
+            canvas.restore();
+        }
+    }
+
+    /**
+     * 修改滚轮画笔的颜色和透明度，与上一次相同时不做任何修改
+     * setColor会同时覆盖透明度，所以颜色变化时需要重新设置透明度
+     *
+     * @param color 不透明的文字颜色
+     * @param alpha 透明度，0-255
+     */
+    private void setWheelPaintStyle(int color, int alpha) {
+        if (color != wheelPaintColor) {
+            wheelPaintColor = color;
+            wheelPaint.setColor(color);
+            wheelPaint.setAlpha(alpha);
+            wheelPaintAlpha = alpha;
+        } else if (alpha != wheelPaintAlpha) {
+            wheelPaintAlpha = alpha;
+            wheelPaint.setAlpha(alpha);
+        }
+    }
+
+    /**
+     * 获取滚轮模式的查找表，如果控件尺寸或者样式发生了变化，那么重新创建
+     *
+     * @return 可以使用的查找表
+     */
+    private WheelTransformTable ensureWheelTransformTable() {
+        float sizeScale = selectedTextSize > 0 ? (float) unselectedTextSize / selectedTextSize : 1f;
+        if (wheelTransformTable == null || !wheelTransformTable.matches(viewWidth, viewHeight, distance, sizeScale, selectedTextAlpha, unselectedTextAlpha)) {
+            Log.d(TAG, "ensureWheelTransformTable: 重新创建查找表");
+            wheelTransformTable = new WheelTransformTable(viewWidth, viewHeight, distance, sizeScale, selectedTextAlpha, unselectedTextAlpha);
+        }
+        return wheelTransformTable;
+    }
+
+    /**
+     * 设置是否通过画布缩放来实现选中文字的尺寸过渡
+     * 关闭时每一个中间尺寸都会让文字按照新的尺寸光栅化，开启后文字只按照选中的尺寸光栅化一次，
+     * 过渡时通过画布以文字中点为中心缩放，过渡的两端和关闭时的效果相同
+     *
+     * @param isCanvasTextScaleEnabled 是否开启
+     */
+    public void setCanvasTextScaleEnabled(boolean isCanvasTextScaleEnabled) {
+        this.isCanvasTextScaleEnabled = isCanvasTextScaleEnabled;
+        isTextStyleDirty = true;
+        invalidate();
+    }
+
+    /**
+     * 设置是否开启快速滚动
+     * 开启后在控件右侧的索引条上按下，手指的位置会直接映射为选中的index；长按后拖动则按照移动的距离改变选中的index，松手时回调一次onSelect
+     * wrap_content时会为索引条预留宽度，宽度不足时不显示索引条，只能长按后拖动
+     * 如果适配器实现了{@link android.widget.SectionIndexer}，那么按照分组进行映射
+     *
+     * @param isFastScrollEnabled 是否开启
+     */
+    public void setFastScrollEnabled(boolean isFastScrollEnabled) {
+        if (isFastScrollEnabled == (fastScroller != null)) {
+            return;
+        }
+        fastScroller = isFastScrollEnabled ? new FastScroller(this) : null;
+        onConfigChanged(CONFIG_LAYOUT);
+    }
+
+    /**
+     * @return 文字的最大宽度
+     */
+    float getMaxTextWidth() {
+        return maxTextWidth;
+    }
+
+    /**
+     * @return 两行之间的距离
+     */
+    float getItemDistance() {
+        return distance;
+    }
+
+    /**
+     * @return 选中行的上方和下方各绘制多少行，滚轮模式下是转到圆柱边缘之前能看到的行数
+     */
+    int getVisibleOtherTextNumber() {
+        if (isWheelMode && distance > 0) {
+            return (int) Math.ceil(ensureWheelTransformTable().getMaxOffset() / distance);
+        }
+        return visibleOtherTextNumber;
+    }
+
+    /**
+     * 获取相对于选中行偏移若干行的位置在屏幕上的y坐标，包含当前的滑动距离
+     * 滚轮模式下返回投影后的坐标，与绘制的位置一致
+     *
+     * @param row 行的偏移，>0为下方，可以是小数，例如offset ± 0.5是该行的上下边缘
+     * @return y坐标
+     */
+    float getRowY(float row) {
+        float offset = row * distance + moveLength;
+        if (isWheelMode) {
+            return ensureWheelTransformTable().getProjectedY(offset);
+        }
+        return viewHeight / 2f + offset;
+    }
+
+    /**
+     * 获取y坐标所在的行相对于选中行的偏移，是{@link #getRowY(float)}的逆运算
+     *
+     * @param y 屏幕上的y坐标
+     * @return 行的偏移，>0为下方
+     */
+    int getRowOffsetAt(float y) {
+        float offset = isWheelMode ? ensureWheelTransformTable().getOffsetAt(y) : y - viewHeight / 2f;
+        return Math.round((offset - moveLength) / distance);
+    }
+
+    /**
+     * 获取相对于选中行偏移若干行的那一行显示的数据位置
+     *
+     * @param offset 行的偏移，>0为下方
+     * @return 数据的位置，没有数据时为-1
+     */
+    int getRowPosition(int offset) {
+        if (adapter.selectedIndex == -1 || adapter.getDataSize() == 0) {
+            return -1;
+        }
+        return getRealSelectedIndex(adapter.selectedIndex + offset);
+    }
+
+    /**
+     * 直接跳转到某个index，不经过中间的数据，也不会回调onSelect
+     *
+     * @param index 要选中的index
+     */
+    void jumpToIndex(int index) {
+        stopRollBack();
+        moveLength = 0;
+        adapter.selectedIndex = index;
+        dispatchScrollProgress(false);
+        invalidate();
+    }
+
+    /**
+     * @return 是否以3D滚轮的样式绘制
+     */
+    public boolean isWheelMode() {
+        return isWheelMode;
+    }
+
+    /**
+     * 设置是否以3D滚轮的样式绘制
+     *
+     * @param isWheelMode 是否为滚轮模式
+     */
+    public void setWheelMode(boolean isWheelMode) {
+        this.isWheelMode = isWheelMode;
+        if (!isWheelMode) {
+            wheelTransformTable = null;
+        }
+        if (qualityGovernor != null) {
+            qualityGovernor.onWheelModeChanged();
+        }
+        invalidate();
+    }
+
+    /**
+     * 绘制出上下其他的Text
+     *
+     * @param canvas
+     * @param count   绘制上、下的第count个text
+     * @param type    用来判断是绘制上方还是下方的数据，MOVE_DOWN是绘制上方的数据
+     * @param centerY 选中的text的中点Y坐标，以该坐标为基准算出来其他text的中点Y坐标
+     */
+    private void drawOtherData(Canvas canvas, int count, int type, float centerY) {
         int position = getRealSelectedIndex(adapter.selectedIndex + type * count);
         if (position == -1) {
             return;
         }
-        Paint.FontMetricsInt fmi = paint.getFontMetricsInt();
-        Log.d(TAG, "drawOtherData: count:" + count);
-        Log.d(TAG, "drawOtherData: scale:" + scale);
-        paint.setTextSize(unselectedTextSize);
-        paint.setColor(unselectedTextColor);
-        paint.setAlpha((int) (unselectedTextAlpha * 255));
-        float x = viewWidth / 2f;
         float y = centerY + type * distance * count;
-        float baseLine = y - (fmi.bottom + fmi.top) / 2f;
-        Log.d(TAG, "drawOtherText: baseline" + baseLine);
-        Log.d(TAG, "drawOtherText: data:" + adapter.getData(position));
-        String otherText = adapter.getText(adapter.getData(position), position);
-        canvas.drawText(otherText, x, baseLine, paint);
+        ItemDrawState state = itemDrawState;
+        state.reset(position);
+        state.centerX = viewWidth / 2f;
+        state.centerY = y;
+        state.fraction = 1f;
+        state.isSelectedRow = false;
+        state.isTransition = false;
+        state.textSize = unselectedTextSize;
+        state.textScale = 1f;
+        state.baseLine = y + unselectedBaseLineOffset;
+        state.selectedPaint = selectedPaint;
+        state.unselectedPaint = unselectedPaint;
+        renderItem(canvas, state);
     }
 
+    /**
+     * 通过ItemRenderer绘制一项，准备好的内容从缓存中获取
+     *
+     * @param canvas 画布
+     * @param state  已经设置好的绘制状态
+     */
+    @SuppressWarnings("unchecked")
+    private void renderItem(Canvas canvas, ItemDrawState state) {
+        ItemRenderer renderer = itemRenderer;
+        // 上下各多缓存一项，滚动切换选中项时刚离开可见范围的内容不会立即被替换
+        Object content = itemContentCache.get(this, renderer, state.position, getItemCacheCapacity());
+        renderer.draw(canvas, state, content);
+    }
 
     /**
-     * 从文字的上方开始，绘制渐变文字
+     * 设置绘制每一项的方式，滚轮模式下不使用
      *
-     * @param canvas   画布
-     * @param startX   文字的左侧x坐标
-     * @param startY   文字的顶部y坐标
-     * @param endX     文字的右侧x坐标
-     * @param endY     文字的底部y坐标
-     * @param changedY 根据缩放的比例，获得的渐变色绘制的高度
-     * @param x        文字绘制的x坐标,因为是居中绘制，所以x是中点横坐标
-     * @param baseLine 文字绘制的baseLine
+     * @param itemRenderer 为null时恢复为默认的{@link TextItemRenderer}
      */
-    private void drawGradientTextFromTop(Canvas canvas, int startX, int startY, int endX, int endY, int changedY, float x, float baseLine) {
-        //绘制渐变层
-        canvas.save();
-        paint.setColor(selectedTextColor);
-        canvas.clipRect(new Rect(startX, startY, endX, startY + changedY));
-        canvas.drawText(selectedText, x, baseLine, paint);
-        canvas.restore();
-        //绘制底色层
-        canvas.save();
-        paint.setColor(unselectedTextColor);
-        canvas.clipRect(new Rect(startX, startY + changedY, endX, endY));
-        canvas.drawText(selectedText, x, baseLine, paint);
-        canvas.restore();
-    }
-
-    /**
-     * 从文字的下方开始，绘制渐变文字
-     *
-     * @param canvas   画布
-     * @param startX   文字的左侧x坐标
-     * @param startY   文字的顶部y坐标
-     * @param endX     文字的右侧x坐标
-     * @param endY     文字的底部y坐标
-     * @param changedY 根据缩放的比例，获得的渐变色绘制的高度
-     * @param x        文字绘制的x坐标,因为是居中绘制，所以x是中点横坐标
-     * @param baseLine 文字绘制的baseLine
-     */
-    private void drawGradientTextFromBottom(Canvas canvas, int startX, int startY, int endX, int endY, int changedY, float x, float baseLine) {
-        //绘制渐变层
-        canvas.save();
-        paint.setColor(selectedTextColor);
-        canvas.clipRect(new Rect(startX, endY - changedY, endX, endY));
-        canvas.drawText(selectedText, x, baseLine, paint);
-        canvas.restore();
-        //绘制底色层
-        canvas.save();
-        paint.setColor(unselectedTextColor);
-        canvas.clipRect(new Rect(startX, startY, endX, endY - changedY));
-        canvas.drawText(selectedText, x, baseLine, paint);
-        canvas.restore();
+    public void setItemRenderer(@Nullable ItemRenderer<?> itemRenderer) {
+        this.itemRenderer = itemRenderer == null ? new TextItemRenderer() : itemRenderer;
+        invalidate();
     }
 
+    @NonNull
+    public ItemRenderer<?> getItemRenderer() {
+        return itemRenderer;
+    }
+
+    /**
+     * 通知ItemRenderer准备的内容已经过期，例如图标加载完成，所有可见项会重新调用prepare
+     */
+    public void invalidateItemContents() {
+        itemContentCache.invalidate();
+        invalidate();
+    }
+
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return accessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return accessibilityHelper.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+    }
+
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, @Nullable Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        accessibilityHelper.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        if (fastScroller != null && fastScroller.onTouchEvent(event)) {
+            int action = event.getActionMasked();
+            if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                // 手势中途被快速滚动接管时，这里也要结束本次手势
+                endTouch();
+            }
+            return true;
+        }
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        // VelocityTracker会自动处理事件中的历史采样点
+        velocityTracker.addMovement(event);
         switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
                 onActionDown(event);
                 break;
+            case MotionEvent.ACTION_POINTER_DOWN:
+                onPointerDown(event);
+                break;
             case MotionEvent.ACTION_MOVE:
                 onActionMove(event);
                 break;
+            case MotionEvent.ACTION_POINTER_UP:
+                onPointerUp(event);
+                break;
             case MotionEvent.ACTION_UP:
                 onActionUp(event);
                 break;
+            case MotionEvent.ACTION_CANCEL:
+                onActionCancel(event);
+                break;
             default:
         }
         return true;
@@ -526,29 +1353,85 @@ public class PickerView extends View {
      * @param event
      */
     private void onActionDown(MotionEvent event) {
-        if (updateViewTask != null) {
-            // 为了防止在回弹的时候继续触发移动事件而导致onDraw同时被调用，在action事件发生时都让原本的更新任务停止
-            updateViewTask.isStop = true;
+        // 为了防止在回弹的时候继续触发移动事件而导致onDraw同时被调用，在action事件发生时都让原本的回弹停止
+        stopRollBack();
+        if (isUnbufferedTouchEnabled) {
+            // 本次手势的MOVE事件不再等到下一帧才批量分发，而是到达后立即分发
+            requestUnbufferedDispatch(event);
         }
+        activePointerId = event.getPointerId(0);
         lastFingerTouchY = event.getY();
+        touchVelocityY = 0;
         Log.d(TAG, "doDown: mLastDownY:" + lastFingerTouchY);
     }
 
+    /**
+     * 又有一根手指按下，改为跟随新按下的手指
+     *
+     * @param event
+     */
+    private void onPointerDown(MotionEvent event) {
+        int pointerIndex = event.getActionIndex();
+        activePointerId = event.getPointerId(pointerIndex);
+        lastFingerTouchY = event.getY(pointerIndex);
+    }
+
+    /**
+     * 有一根手指抬起，如果抬起的是正在跟随的手指，那么改为跟随剩下的某一根手指
+     *
+     * @param event
+     */
+    private void onPointerUp(MotionEvent event) {
+        int pointerIndex = event.getActionIndex();
+        if (event.getPointerId(pointerIndex) != activePointerId) {
+            return;
+        }
+        int newPointerIndex = pointerIndex == 0 ? 1 : 0;
+        activePointerId = event.getPointerId(newPointerIndex);
+        lastFingerTouchY = event.getY(newPointerIndex);
+    }
+
     /**
      * 处理手指移动事件
+     * 一次MOVE事件中可能批量包含了上一帧以来的多个采样点，依次处理每一个历史采样点，最后处理当前的坐标，
+     * 这样快速滑动时也不会漏掉中间经过的数据
+     *
+     * @param event
+     */
+    private void onActionMove(MotionEvent event) {
+        int pointerIndex = event.findPointerIndex(activePointerId);
+        if (pointerIndex == -1) {
+            return;
+        }
+        int historySize = event.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            moveTo(event.getHistoricalY(pointerIndex, h));
+        }
+        moveTo(event.getY(pointerIndex));
+        velocityTracker.computeCurrentVelocity(1000);
+        touchVelocityY = velocityTracker.getYVelocity(activePointerId);
+        dispatchScrollProgress(false);
+        invalidate();
+    }
+
+    /**
+     * 根据手指移动到的位置计算滑动距离
      * 根据每次滑动的距离来计算出总的滑动距离
      * 如果每次滑动的距离segmentMoveLength > 0, 说明是向下移动，反之则向上移动
      * 如果设置为不允许数据循环，那么当移动到末尾或者开头的时候，直接结束移动事件。
      * 当移动距离超过两个text之间距离的一半时，这个时候说明发生了选中数据的交替，修改下标
      * 同时移动距离减去两个text之间的距离（原text为a，即将被选中的text为b，当a移动超过ab距离一半的时候，
      * 此时选中的数据从a变为b，对b而言，现在要进行的移动方向和a是相反的，且要移动的距离和a原本的距离相加就是二者的距离）
-     * @param event
+     *
+     * @param y 手指的y坐标
      */
-    private void onActionMove(MotionEvent event) {
-
-        Log.d(TAG, "onActionMove: mMoveLenBefore:" + moveLength);
+    private void moveTo(float y) {
         //获得本次滑动的距离，>0是向下滑，<0是向上滑
-        float segmentMoveLength = event.getY() - lastFingerTouchY;
+        float segmentMoveLength = y - lastFingerTouchY;
+        lastFingerTouchY = y;
+        if (!hasSelectedData()) {
+            return;
+        }
         if (segmentMoveLength > 0) {
             direction = MOVE_DOWN;
             if (!isDataRecycled && adapter.selectedIndex == 0) {
@@ -561,8 +1444,6 @@ public class PickerView extends View {
             }
         }
         moveLength += segmentMoveLength;
-        Log.d(TAG, "onActionMove: mMoveLenNow:" + moveLength);
-        Log.d(TAG, "onActionMove: distance:" + distance / 2f);
         if (moveLength > distance / 2.0) {
             // 手势往下滑动超过距离的一半, 也就是获取上一个data
             moveSelectedIndexUp();
@@ -572,105 +1453,380 @@ public class PickerView extends View {
             moveSelectedIndexDown();
             moveLength = moveLength + distance;
         }
+    }
 
-        lastFingerTouchY = event.getY();
-        Log.d(TAG, "doMove: lastFingerDownY" + lastFingerTouchY);
-        invalidate();
+    /**
+     * 手势被父控件拦截或者系统取消，与手指抬起一样回弹到选中的位置，避免停留在两个数据之间
+     *
+     * @param event
+     */
+    private void onActionCancel(MotionEvent event) {
+        Log.d(TAG, "onActionCancel: moveLen" + moveLength);
+        endTouch();
+        startRollBack();
+    }
+
+    /**
+     * 长按之后开始快速滚动，接管了本次手势剩下的事件，与ACTION_CANCEL一样结束正常的滑动，
+     * 长按之前拖动的距离直接丢弃，回到当前选中的index
+     */
+    void onFastScrollStarted() {
+        endTouch();
+        stopRollBack();
+        moveLength = 0;
+    }
+
+    /**
+     * 手势结束，重置跟随的手指和速度
+     */
+    private void endTouch() {
+        activePointerId = INVALID_POINTER_ID;
+        touchVelocityY = 0;
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
+        }
     }
 
     /**
-     * 当手指放开的时候处理的事件
-     * 新建更新任务，将更新任务加入线程池中，同时开始运行，每10ms执行一次回弹效果
-     * 如果任务已存在，那么运行任务即可
+     * 获取手指当前的滑动速度
+     *
+     * @return 单位为像素/秒，>0是向下滑，没有在拖动时为0
+     */
+    float getTouchVelocityY() {
+        return touchVelocityY;
+    }
+
+    /**
+     * 设置是否请求不经过缓冲的触摸事件分发
+     * 默认情况下系统会把一帧内的MOVE事件合并到下一帧才分发，开启后事件到达就立即分发，
+     * 在高刷新率的屏幕上拖动时手指到画面的延迟可以减少一帧，代价是onTouchEvent的调用次数变多
+     *
+     * @param isUnbufferedTouchEnabled 是否开启
+     */
+    public void setUnbufferedTouchEnabled(boolean isUnbufferedTouchEnabled) {
+        this.isUnbufferedTouchEnabled = isUnbufferedTouchEnabled;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // 离开窗口时中断的回弹在重新添加到窗口之后继续
+        if (moveLength != 0 && activePointerId == INVALID_POINTER_ID) {
+            startRollBack();
+        }
+    }
+
+    /**
+     * 离开窗口时停止回弹并移除所有延时的任务
+     * 默认的动画组是静态的，如果不停止回弹，它会一直持有这个PickerView直到回弹结束
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        stopRollBack();
+        cancelTrailingScrollProgress();
+        accessibilityHelper.onDetachedFromWindow();
+        if (qualityGovernor != null) {
+            qualityGovernor.onDetachedFromWindow();
+        }
+        if (fastScroller != null) {
+            fastScroller.onDetachedFromWindow();
+        }
+        if (prefetcher != null) {
+            prefetcher.cancel();
+        }
+    }
+
+    /**
+     * 当手指放开的时候处理的事件，开始回弹
      * @param event
      */
     private void onActionUp(MotionEvent event) {
         Log.d(TAG, "onActionUp: moveLen" + moveLength);
+        endTouch();
         // 抬起手后，开始进行回弹，回弹到选中的index的位置
-        if (updateViewTask != null) {
-            // 为了防止在回弹的时候继续触发移动事件而导致onDraw同时被调用，在action事件发生时都让原本的更新任务停止
-            updateViewTask.isStop = true;
+        startRollBack();
+    }
+
+    /**
+     * 开始回弹到选中的index的位置
+     * 加入动画组中，由动画组的帧回调每一帧回弹一步，同一个组中的PickerView共用一个帧回调
+     */
+    private void startRollBack() {
+        if (!hasSelectedData()) {
+            moveLength = 0;
+            invalidate();
+            return;
         }
+        isRollingBack = true;
+        getAnimationGroup().start(this);
+    }
 
-        //如果更新任务为null，那么创建一个更新任务并执行
-        if (updateViewTask == null) {
-            updateViewTask = new UpdateViewTask(new UpdateViewHandler(Looper.myLooper(), this));
-            scheduledExecutorService.scheduleWithFixedDelay(updateViewTask, 0, 10, TimeUnit.MILLISECONDS);
-            Log.d(TAG, "onActionUp: 执行mTask");
-        } else {
-            // 如果更新任务已经存在，那么修改状态变量为false使其继续运行
-            updateViewTask.isStop = false;
+    /**
+     * 停止回弹，停留在当前的位置
+     */
+    private void stopRollBack() {
+        if (isRollingBack) {
+            isRollingBack = false;
+            getAnimationGroup().stop(this);
         }
+    }
 
+    /**
+     * 是否正在回弹
+     *
+     * @return 是否正在回弹
+     */
+    public boolean isRollingBack() {
+        return isRollingBack;
+    }
+
+    /**
+     * @return 手指正在拖动或者正在回弹
+     */
+    boolean isScrolling() {
+        return activePointerId != INVALID_POINTER_ID || isRollingBack;
     }
 
-    static class UpdateViewTask implements Runnable {
-        Handler handler;
-        boolean isStop = false;
+    /**
+     * 设置统计内部操作的钩子，只在基准测试中使用
+     *
+     * @param probe 钩子，为null时不统计
+     */
+    void setProbe(@Nullable PickerProbe probe) {
+        this.probe = probe;
+    }
 
-        public UpdateViewTask(Handler handler) {
-            this.handler = handler;
+    /**
+     * 设置绘制质量的调节器，滚动时帧间隔超出预算会逐级降低质量：减少上下的行数、不绘制渐变、固定文字尺寸、关闭抗锯齿，
+     * 停止滚动一段时间后恢复，滚轮模式下只会关闭抗锯齿，参考{@link QualityGovernor}
+     *
+     * @param qualityGovernor 调节器，为null时始终完整绘制
+     */
+    public void setQualityGovernor(@Nullable QualityGovernor qualityGovernor) {
+        if (this.qualityGovernor == qualityGovernor) {
+            return;
         }
+        if (this.qualityGovernor != null) {
+            this.qualityGovernor.detach();
+        }
+        this.qualityGovernor = qualityGovernor;
+        if (qualityGovernor != null) {
+            qualityGovernor.attach(this);
+        }
+        onQualityLevelChanged();
+    }
 
-        @Override
-        public void run() {
-            if (!isStop) {
-                handler.sendMessage(handler.obtainMessage());
-            }
+    @Nullable
+    public QualityGovernor getQualityGovernor() {
+        return qualityGovernor;
+    }
+
+    /**
+     * @return 当前的绘制质量等级，没有设置调节器时为{@link QualityGovernor#LEVEL_FULL}
+     */
+    public int getQualityLevel() {
+        return qualityGovernor == null ? QualityGovernor.LEVEL_FULL : qualityGovernor.getLevel();
+    }
+
+    /**
+     * 质量等级变化后重绘，只有抗锯齿的开关变化时才需要重新配置画笔
+     */
+    void onQualityLevelChanged() {
+        boolean isAntiAlias = getQualityLevel() < QualityGovernor.LEVEL_NO_ANTI_ALIAS;
+        onConfigChanged(isAntiAlias != isTextAntiAlias ? CONFIG_STYLE : CONFIG_DRAW);
+    }
+
+    /**
+     * 设置驱动回弹的动画组，同一个组中的PickerView在同一帧中回弹
+     * 正在回弹时会转移到新的动画组中继续回弹
+     *
+     * @param animationGroup 动画组，为null时使用{@link PickerAnimationGroup#getDefault()}
+     */
+    public void setAnimationGroup(@Nullable PickerAnimationGroup animationGroup) {
+        if (isRollingBack) {
+            getAnimationGroup().stop(this);
+        }
+        this.animationGroup = animationGroup;
+        if (isRollingBack) {
+            getAnimationGroup().start(this);
         }
+    }
 
+    @NonNull
+    public PickerAnimationGroup getAnimationGroup() {
+        return animationGroup == null ? PickerAnimationGroup.getDefault() : animationGroup;
     }
 
-    static class UpdateViewHandler extends Handler {
-        WeakReference<PickerView> pickerViewWeakReference;
+    /**
+     * 获取滚动的偏移，>0时内容向下偏移，也就是上一个数据正在靠近中间
+     *
+     * @return 偏移的距离，范围在正负distance的一半之内
+     */
+    public float getScrollOffset() {
+        return moveLength;
+    }
+
+    /**
+     * 设置滚动的偏移，会停止正在进行的回弹，不会回调onSelect
+     * 超过distance的一半时与拖动一样切换选中的index，所以可以用{@link #SCROLL_OFFSET}做跨越多个数据的动画
+     *
+     * @param scrollOffset 偏移的距离
+     */
+    public void setScrollOffset(float scrollOffset) {
+        stopRollBack();
+        moveLength = adapter == null || adapter.getDataSize() == 0 ? 0 : scrollOffset;
+        while (moveLength > distance / 2.0) {
+            if (!isDataRecycled && adapter.selectedIndex == 0) {
+                moveLength = distance / 2f;
+                break;
+            }
+            moveSelectedIndexUp();
+            moveLength -= distance;
+        }
+        while (moveLength < -distance / 2.0) {
+            if (!isDataRecycled && adapter.selectedIndex == adapter.getDataSize() - 1) {
+                moveLength = -distance / 2f;
+                break;
+            }
+            moveSelectedIndexDown();
+            moveLength += distance;
+        }
+        dispatchScrollProgress(false);
+        invalidate();
+    }
 
-        public UpdateViewHandler(@NonNull Looper looper, PickerView pickerView) {
-            super(looper);
-            this.pickerViewWeakReference = new WeakReference<>(pickerView);
+    /**
+     * 滚动偏移对应的属性，可以用于ObjectAnimator等属性动画
+     */
+    public static final Property<PickerView, Float> SCROLL_OFFSET = new Property<PickerView, Float>(Float.class, "scrollOffset") {
+        @Override
+        public Float get(PickerView pickerView) {
+            return pickerView.getScrollOffset();
         }
 
         @Override
-        public void handleMessage(@NonNull Message msg) {
-            if (pickerViewWeakReference != null) {
-                pickerViewWeakReference.get().updateView();
-            }
+        public void set(PickerView pickerView, Float value) {
+            pickerView.setScrollOffset(value);
+        }
+    };
+
+    /**
+     * 开始批量修改配置，直到对应的{@link #endUpdate()}之前，各个setter只记录变化，不会重新计算distance、
+     * 文字样式和宽度，也不会请求布局和重绘；可以嵌套调用，最外层的endUpdate时统一生效
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    /**
+     * 结束批量修改，最外层的endUpdate会一次性重新计算所有派生的值，最多请求一次布局和一次重绘
+     */
+    public void endUpdate() {
+        if (updateDepth == 0) {
+            throw new IllegalStateException("endUpdate without beginUpdate");
+        }
+        updateDepth--;
+        if (updateDepth == 0) {
+            applyPendingConfig();
+        }
+    }
+
+    /**
+     * 记录配置的变化，不在批量修改中时立即生效
+     *
+     * @param changes CONFIG_XXX的组合
+     */
+    private void onConfigChanged(int changes) {
+        pendingConfigChanges |= changes;
+        if (updateDepth == 0) {
+            applyPendingConfig();
         }
     }
 
+    private void applyPendingConfig() {
+        int changes = pendingConfigChanges;
+        pendingConfigChanges = 0;
+        if (changes == 0) {
+            return;
+        }
+        if ((changes & CONFIG_DISTANCE) != 0) {
+            distance = textPadding + (selectedTextSize + unselectedTextSize) / 2f;
+        }
+        if ((changes & CONFIG_STYLE) != 0) {
+            isTextStyleDirty = true;
+        }
+        if ((changes & CONFIG_TEXT_WIDTH) != 0) {
+            isMaxTextWidthDirty = true;
+        }
+        if ((changes & (CONFIG_DISTANCE | CONFIG_TEXT_WIDTH | CONFIG_LAYOUT)) != 0) {
+            requestLayout();
+        }
+        invalidate();
+    }
 
     public void setSelectedTextSize(int selectedTextSize) {
         this.selectedTextSize = selectedTextSize;
-        distance = textPadding + (selectedTextSize + unselectedTextSize) / 2f;
+        onConfigChanged(CONFIG_DISTANCE | CONFIG_STYLE | CONFIG_TEXT_WIDTH);
     }
 
     public void setUnselectedTextSize(int unselectedTextSize) {
         this.unselectedTextSize = unselectedTextSize;
-        distance = textPadding + (selectedTextSize + unselectedTextSize) / 2f;
+        onConfigChanged(CONFIG_DISTANCE | CONFIG_STYLE);
     }
 
     public void setTextPadding(int textPadding) {
         this.textPadding = textPadding;
-        distance = textPadding + (selectedTextSize + unselectedTextSize) / 2f;
+        onConfigChanged(CONFIG_DISTANCE);
     }
 
     public void setSpeed(float speed) {
         this.speed = speed;
     }
 
+    public float getSpeed() {
+        return speed;
+    }
+
     public void setSelectedTextAlpha(float selectedTextAlpha) {
         this.selectedTextAlpha = selectedTextAlpha;
+        onConfigChanged(CONFIG_STYLE);
     }
 
     public void setUnselectedTextAlpha(float unselectedTextAlpha) {
         this.unselectedTextAlpha = unselectedTextAlpha;
+        onConfigChanged(CONFIG_STYLE);
     }
 
     public void setUnselectedTextColor(int unselectedTextColor) {
         this.unselectedTextColor = unselectedTextColor;
+        onConfigChanged(CONFIG_STYLE);
+    }
+
+    /**
+     * 设置上下各绘制多少个未选中的文本
+     *
+     * @param otherTextNumber 一边绘制的文本个数
+     */
+    public void setOtherTextNumber(int otherTextNumber) {
+        this.otherTextNumber = otherTextNumber;
+        onConfigChanged(CONFIG_LAYOUT);
+    }
+
+    /**
+     * 设置是否根据控件的高度自动计算绘制的文本个数，只有高度为EXACTLY时生效
+     *
+     * @param isOtherTextNumberAuto 是否自动计算
+     */
+    public void setOtherTextNumberAuto(boolean isOtherTextNumberAuto) {
+        this.isOtherTextNumberAuto = isOtherTextNumberAuto;
+        onConfigChanged(CONFIG_LAYOUT);
     }
 
     public void setDataRecycled(boolean isDataRecycled) {
         this.isDataRecycled = isDataRecycled;
+        onConfigChanged(CONFIG_DRAW);
     }
 
 
@@ -680,14 +1836,17 @@ public class PickerView extends View {
         } else {
             selectedTextColor = getResources().getColor(colorResourceId);
         }
+        onConfigChanged(CONFIG_STYLE);
     }
 
     public void setSelectedTextColorInt(int color) {
         selectedTextColor = color;
+        onConfigChanged(CONFIG_STYLE);
     }
 
     public void setUnselectedTextColorInt(int color) {
         unselectedTextColor = color;
+        onConfigChanged(CONFIG_STYLE);
     }
 
     public void setUnSelectedTextColor(int colorResourceId) {
@@ -696,6 +1855,7 @@ public class PickerView extends View {
         } else {
             unselectedTextColor = getResources().getColor(colorResourceId);
         }
+        onConfigChanged(CONFIG_STYLE);
     }
 
     /**
@@ -712,7 +1872,10 @@ public class PickerView extends View {
     }
 
     public String getSelectedText() {
-        return selectedText;
+        if (adapter == null || adapter.selectedIndex == -1) {
+            return null;
+        }
+        return getItemText(adapter.selectedIndex);
     }
 
     /**
@@ -724,14 +1887,75 @@ public class PickerView extends View {
         return adapter.selectedIndex;
     }
 
+    /**
+     * 设置滚动进度的监听器，每次滚动位置变化都会回调
+     *
+     * @param listener 监听器，传入null则取消监听
+     */
+    public void setOnScrollProgressListener(OnScrollProgressListener listener) {
+        setOnScrollProgressListener(listener, 0, false);
+    }
+
+    /**
+     * 设置滚动进度的监听器
+     *
+     * @param listener              监听器，传入null则取消监听
+     * @param maxCallbacksPerSecond 每秒最多回调的次数，小于等于0则不限制，节流期间最新的进度会在间隔结束时补发
+     * @param isIndexOnly           为true时只在选中的index发生变化时回调
+     */
+    public void setOnScrollProgressListener(OnScrollProgressListener listener, int maxCallbacksPerSecond, boolean isIndexOnly) {
+        this.onScrollProgressListener = listener;
+        this.scrollProgressIntervalMillis = maxCallbacksPerSecond > 0 ? 1000L / maxCallbacksPerSecond : 0;
+        this.isScrollProgressIndexOnly = isIndexOnly;
+        cancelTrailingScrollProgress();
+        lastScrollProgressTime = 0;
+        lastScrollProgressIndex = -1;
+        lastScrollProgressPosition = Float.NaN;
+    }
+
+    public interface OnScrollProgressListener {
+        /**
+         * 滚动位置发生变化时回调，在主线程中执行
+         *
+         * @param pickerView 发生滚动的PickerView
+         * @param position   当前的滚动位置，参考{@link PickerView#getScrollPosition()}
+         */
+        void onScrollProgress(PickerView pickerView, float position);
+    }
+
     public abstract static class Adapter<E> {
         private List<E> dataList;
         private int selectedIndex;
+        /**
+         * 数据被修改的次数，用来判断预先计算的文本是否过期
+         */
+        int modCount = 0;
+        /**
+         * 使用该适配器的PickerView，用来在数据变化时通知其更新
+         */
+        PickerView pickerView;
+
+        /**
+         * 数据版本未知，此时恢复状态时总是会重新测量文字宽度
+         */
+        public static final long DATA_VERSION_UNKNOWN = -1;
 
         public abstract String getText(E data, int position);
 
         public abstract void onSelect(E data, int position);
 
+        /**
+         * 将某个位置的文本写入可复用的缓冲区，PickerView绘制和测量时都通过该方法获取文本
+         * 默认写入{@link #getText(Object, int)}的结果，数字等可以直接格式化的数据重写该方法后，绘制时就不会再创建String
+         * 重写后写入的文本需要与getText的结果相同
+         *
+         * @param position 数据的位置
+         * @param buffer   已经清空的缓冲区
+         */
+        public void writeText(int position, @NonNull TextBuffer buffer) {
+            buffer.append(getText(getData(position), position));
+        }
+
         public E getData(int position) {
             return dataList.get(position);
         }
@@ -763,6 +1987,7 @@ public class PickerView extends View {
 
         public void setDataList(@NotNull List<E> dataList) {
             this.dataList = dataList;
+            modCount++;
             if (dataList.isEmpty()) {
                 selectedIndex = -1;
             } else {
@@ -779,7 +2004,7 @@ public class PickerView extends View {
         }
 
         public E getSelectedData() {
-            return dataList.get(selectedIndex);
+            return getData(selectedIndex);
         }
 
         public int getSelectedIndex() {
@@ -790,8 +2015,35 @@ public class PickerView extends View {
             this.selectedIndex = selectedIndex;
         }
 
+        /**
+         * 通知数据发生了变化，PickerView会重新测量并重绘
+         */
         public void notifyDataChanged() {
+            modCount++;
+            if (pickerView != null) {
+                pickerView.reMeasure();
+            }
+        }
+
+        /**
+         * 通知数据被过滤，数据的位置发生了变化但是文本的最大宽度不需要重新测量
+         */
+        void notifyDataFiltered() {
+            modCount++;
+            if (pickerView != null) {
+                pickerView.onAdapterDataFiltered();
+            }
+        }
 
+        /**
+         * 获取数据的版本，用来在恢复状态时判断数据是否发生了变化
+         * 数据相同时必须返回相同的版本，数据不同时必须返回不同的版本
+         * 重写该方法后，屏幕旋转等情况恢复状态时，如果版本没有变化，就会直接使用保存的文字最大宽度而不再重新测量
+         *
+         * @return 数据的版本，默认为{@link #DATA_VERSION_UNKNOWN}
+         */
+        public long getDataVersion() {
+            return DATA_VERSION_UNKNOWN;
         }
     }
 
@@ -804,24 +2056,192 @@ public class PickerView extends View {
      * @param adapter
      */
     public void setAdapter(@NotNull Adapter adapter) {
+        setAdapter(adapter, null);
+    }
+
+    /**
+     * 设置适配器，同时使用预先计算好的文本和宽度，此时不会再在主线程中测量文本
+     *
+     * @param adapter          适配器
+     * @param precomputedTexts 通过{@link PrecomputedItemTexts#create(Adapter, Paint)}预先计算的结果，
+     *                         如果与适配器或者文字尺寸不匹配则会被忽略
+     */
+    public void setAdapter(@NotNull Adapter adapter, @Nullable PrecomputedItemTexts precomputedTexts) {
+        if (this.adapter != null && this.adapter.pickerView == this) {
+            this.adapter.pickerView = null;
+        }
         this.adapter = adapter;
-        paint.setTextSize(selectedTextSize);
-        measureMaxTextWidth();
-        int width = getPaddingStart() + getPaddingEnd() + (int) maxTextWidth + 1;
-        widthMeasureSpec = MeasureSpec.makeMeasureSpec(width, MeasureSpec.getMode(widthMeasureSpec));
-        //measure(widthMeasureSpec, heightMeasureSpec);
+        adapter.pickerView = this;
+        this.precomputedTexts = precomputedTexts;
+        isMaxTextWidthDirty = true;
+        if (pendingSavedState != null) {
+            SavedState savedState = pendingSavedState;
+            pendingSavedState = null;
+            restoreState(savedState);
+        }
+        accessibilityHelper.onScrollChanged();
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * 适配器的数据被过滤之后，停止回弹并回到选中的位置重绘，控件的宽度保持不变
+     */
+    void onAdapterDataFiltered() {
+        stopRollBack();
+        moveLength = 0;
+        dispatchScrollProgress(true);
         invalidate();
     }
 
     public void reMeasure() {
+        isMaxTextWidthDirty = true;
+        Log.d(TAG, "reMeasure: 重绘制");
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * 如果文字的最大宽度需要重新测量，那么进行测量
+     */
+    private void ensureMaxTextWidth() {
+        if (!isMaxTextWidthDirty) {
+            return;
+        }
+        isMaxTextWidthDirty = false;
+        measureGeneration++;
         paint.setTextSize(selectedTextSize);
+        if (precomputedTexts != null && precomputedTexts.isValidFor(adapter, selectedTextSize)) {
+            maxTextWidth = precomputedTexts.getMaxWidth();
+            isMaxTextWidthProvisional = false;
+            return;
+        }
+        if (isAsyncTextMeasureEnabled && adapter.getDataSize() >= ASYNC_MEASURE_MIN_SIZE) {
+            // 先使用可见文本的宽度进行布局，等后台测量结束后再修正
+            measureProvisionalTextWidth();
+            isMaxTextWidthProvisional = true;
+            measureTextAsync();
+            return;
+        }
         measureMaxTextWidth();
-        int width = getPaddingStart() + getPaddingEnd() + (int) maxTextWidth + 1;
-        widthMeasureSpec = MeasureSpec.makeMeasureSpec(width, MeasureSpec.getMode(widthMeasureSpec));
-        //super.measure(MeasureSpec.makeMeasureSpec(width, MeasureSpec.getMode(widthMeasureSpec)), heightMeasureSpec);
-        Log.d(TAG, "reMeasure: 重绘制");
+    }
+
+    /**
+     * 设置是否在后台线程中测量文本的宽度
+     * 开启后数据量较大时，第一次布局使用可见文本的宽度，后台测量结束后如果宽度变化只会再请求一次布局，
+     * 此时适配器的getText需要是线程安全的
+     *
+     * @param isAsyncTextMeasureEnabled 是否开启异步测量
+     */
+    public void setAsyncTextMeasureEnabled(boolean isAsyncTextMeasureEnabled) {
+        this.isAsyncTextMeasureEnabled = isAsyncTextMeasureEnabled;
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState savedState = new SavedState(super.onSaveInstanceState());
+        savedState.selectedIndex = adapter.selectedIndex;
+        savedState.dataSize = adapter.getDataSize();
+        savedState.moveLength = moveLength;
+        // 只保存已经完整测量过的宽度，不会为了保存状态而测量所有的文本
+        savedState.maxTextWidth = isMaxTextWidthDirty || isMaxTextWidthProvisional ? SavedState.UNKNOWN_TEXT_WIDTH : maxTextWidth;
+        savedState.textSize = selectedTextSize;
+        savedState.dataVersion = adapter.getDataVersion();
+        return savedState;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        if (adapter.getDataSize() == 0 && savedState.dataSize != 0) {
+            // 适配器还没有设置数据，等到setAdapter的时候再恢复
+            pendingSavedState = savedState;
+            return;
+        }
+        restoreState(savedState);
+    }
+
+    /**
+     * 恢复选中的index、滑动距离，如果数据版本没有变化，那么直接使用保存的文字最大宽度
+     *
+     * @param savedState 保存的状态
+     */
+    private void restoreState(SavedState savedState) {
+        if (savedState.dataSize != adapter.getDataSize()) {
+            // 数据已经发生变化，保存的状态无效
+            return;
+        }
+        adapter.selectedIndex = savedState.selectedIndex;
+        long dataVersion = adapter.getDataVersion();
+        if (dataVersion != Adapter.DATA_VERSION_UNKNOWN && dataVersion == savedState.dataVersion
+                && savedState.textSize == selectedTextSize && savedState.maxTextWidth != SavedState.UNKNOWN_TEXT_WIDTH) {
+            maxTextWidth = savedState.maxTextWidth;
+            isMaxTextWidthDirty = false;
+            isMaxTextWidthProvisional = false;
+        }
+        moveLength = savedState.moveLength;
+        if (moveLength != 0) {
+            // 保存状态的时候还没有回弹结束，继续回弹
+            startRollBack();
+        }
+        requestLayout();
         invalidate();
     }
 
+    static class SavedState extends BaseSavedState {
+        /**
+         * 保存时文字的最大宽度还没有测量
+         */
+        static final float UNKNOWN_TEXT_WIDTH = -1f;
+        int selectedIndex;
+        int dataSize;
+        float moveLength;
+        float maxTextWidth;
+        int textSize;
+        long dataVersion;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            selectedIndex = in.readInt();
+            dataSize = in.readInt();
+            moveLength = in.readFloat();
+            maxTextWidth = in.readFloat();
+            textSize = in.readInt();
+            dataVersion = in.readLong();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(selectedIndex);
+            out.writeInt(dataSize);
+            out.writeFloat(moveLength);
+            out.writeFloat(maxTextWidth);
+            out.writeInt(textSize);
+            out.writeLong(dataVersion);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
 }
 
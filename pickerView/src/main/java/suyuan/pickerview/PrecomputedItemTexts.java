@@ -0,0 +1,87 @@
+package suyuan.pickerview;
+
+import android.graphics.Paint;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 预先计算好的适配器文本和文本宽度
+ * 可以在后台线程中通过{@link #create(PickerView.Adapter, Paint)}创建，然后交给PickerView使用，
+ * PickerView绘制的时候会直接使用这里的文本，不会再次调用适配器的getText
+ *
+ * @author suyuan
+ */
+public final class PrecomputedItemTexts {
+    final PickerView.Adapter<?> adapter;
+    /**
+     * 创建时适配器的修改次数，用来判断适配器的数据在这之后有没有被修改过
+     */
+    final int adapterModCount;
+    final float textSize;
+    private final String[] texts;
+    private final float[] widths;
+    private final float maxWidth;
+
+    private PrecomputedItemTexts(PickerView.Adapter<?> adapter, int adapterModCount, float textSize, String[] texts, float[] widths, float maxWidth) {
+        this.adapter = adapter;
+        this.adapterModCount = adapterModCount;
+        this.textSize = textSize;
+        this.texts = texts;
+        this.widths = widths;
+        this.maxWidth = maxWidth;
+    }
+
+    /**
+     * 计算适配器中所有数据的文本和宽度，可以在任意线程中调用
+     * 在后台线程调用时，适配器的getText必须是线程安全的，且计算期间不能修改适配器的数据
+     *
+     * @param adapter 要计算的适配器
+     * @param paint   用来测量的画笔，文字尺寸需要是选中文字的尺寸，该画笔只会被读取
+     * @return 计算的结果
+     */
+    @NonNull
+    public static <E> PrecomputedItemTexts create(@NonNull PickerView.Adapter<E> adapter, @NonNull Paint paint) {
+        int modCount = adapter.modCount;
+        int size = adapter.getDataSize();
+        String[] texts = new String[size];
+        float[] widths = new float[size];
+        float maxWidth = 0;
+        for (int i = 0; i < size; i++) {
+            String text = adapter.getText(adapter.getData(i), i);
+            float width = paint.measureText(text);
+            texts[i] = text;
+            widths[i] = width;
+            if (width > maxWidth) {
+                maxWidth = width;
+            }
+        }
+        return new PrecomputedItemTexts(adapter, modCount, paint.getTextSize(), texts, widths, maxWidth);
+    }
+
+    /**
+     * 判断该结果对于当前的适配器是否还有效
+     *
+     * @param adapter  当前的适配器
+     * @param textSize 当前选中文字的尺寸
+     * @return 适配器相同、数据没有修改且文字尺寸相同时返回true
+     */
+    boolean isValidFor(PickerView.Adapter<?> adapter, float textSize) {
+        return this.adapter == adapter && adapterModCount == adapter.modCount && this.textSize == textSize;
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    public String getText(int position) {
+        return texts[position];
+    }
+
+    public float getWidth(int position) {
+        return widths[position];
+    }
+
+    public float getMaxWidth() {
+        return maxWidth;
+    }
+}
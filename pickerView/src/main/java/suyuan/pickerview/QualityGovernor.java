@@ -0,0 +1,246 @@
+package suyuan.pickerview;
+
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 根据滚动时实际的帧间隔自动降低PickerView的绘制质量
+ * 滚动期间每一帧通过Choreographer记录相邻两帧的时间差，超出预算的帧累计到一定数量后降低一级，
+ * 停止滚动一段时间后恢复到最高质量。质量等级是累加的，较低的等级包含了之前所有的简化
+ * 滚轮模式下只有关闭抗锯齿是有效的，所以会直接从{@link #LEVEL_FULL}降低到{@link #LEVEL_NO_ANTI_ALIAS}
+ * <p>
+ * 通过{@link PickerView#setQualityGovernor(QualityGovernor)}使用，一个实例只能用于一个PickerView
+ *
+ * @author suyuan
+ */
+public final class QualityGovernor {
+    /**
+     * 完整的绘制效果
+     */
+    public static final int LEVEL_FULL = 0;
+    /**
+     * 上下只绘制一半数量的未选中文本
+     */
+    public static final int LEVEL_FEWER_ROWS = 1;
+    /**
+     * 选中项过渡时不再分两次裁剪绘制渐变，只用一个画笔绘制
+     */
+    public static final int LEVEL_NO_GRADIENT = 2;
+    /**
+     * 选中项不再过渡文字尺寸，始终按照选中的尺寸绘制
+     */
+    public static final int LEVEL_FIXED_TEXT_SIZE = 3;
+    /**
+     * 关闭文字的抗锯齿
+     */
+    public static final int LEVEL_NO_ANTI_ALIAS = 4;
+
+    private PickerView pickerView;
+    private int level = LEVEL_FULL;
+    private int maxLevel = LEVEL_NO_ANTI_ALIAS;
+    private long frameBudgetNanos = 16_666_667L;
+    private int downgradeThreshold = 4;
+    private long restoreDelayMillis = 1000;
+    private OnQualityChangedListener onQualityChangedListener;
+
+    /**
+     * 超出预算的帧数，正常的帧会抵消一帧，避免偶尔的卡顿就降低质量
+     */
+    private int slowFrames = 0;
+    private long lastFrameTimeNanos = 0;
+    private boolean isMonitoring = false;
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onFrame(frameTimeNanos);
+        }
+    };
+    private final Runnable restoreRunnable = new Runnable() {
+        @Override
+        public void run() {
+            setLevel(LEVEL_FULL);
+        }
+    };
+
+    public interface OnQualityChangedListener {
+        /**
+         * 质量等级发生变化时回调
+         *
+         * @param pickerView PickerView
+         * @param level      新的等级，LEVEL_XXX
+         */
+        void onQualityChanged(PickerView pickerView, int level);
+    }
+
+    void attach(@NonNull PickerView pickerView) {
+        if (this.pickerView != null && this.pickerView != pickerView) {
+            throw new IllegalStateException("QualityGovernor is already attached to another PickerView");
+        }
+        this.pickerView = pickerView;
+    }
+
+    void detach() {
+        stopMonitoring();
+        if (pickerView != null) {
+            pickerView.removeCallbacks(restoreRunnable);
+        }
+        slowFrames = 0;
+        level = LEVEL_FULL;
+        pickerView = null;
+    }
+
+    /**
+     * PickerView离开窗口时停止记录帧间隔，并直接恢复到最高质量，不再等待恢复的延时
+     */
+    void onDetachedFromWindow() {
+        stopMonitoring();
+        if (pickerView != null) {
+            pickerView.removeCallbacks(restoreRunnable);
+        }
+        setLevel(LEVEL_FULL);
+    }
+
+    /**
+     * PickerView在滚动时每次绘制都会调用，开始记录帧间隔
+     */
+    void onScrollDraw() {
+        if (isMonitoring || pickerView == null) {
+            return;
+        }
+        isMonitoring = true;
+        lastFrameTimeNanos = 0;
+        pickerView.removeCallbacks(restoreRunnable);
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    private void onFrame(long frameTimeNanos) {
+        if (!isMonitoring || pickerView == null) {
+            return;
+        }
+        if (!pickerView.isScrolling()) {
+            stopMonitoring();
+            if (level != LEVEL_FULL) {
+                pickerView.postDelayed(restoreRunnable, restoreDelayMillis);
+            }
+            return;
+        }
+        if (lastFrameTimeNanos != 0) {
+            // 超过预算一半以上说明至少丢了一帧
+            if (frameTimeNanos - lastFrameTimeNanos > frameBudgetNanos * 3 / 2) {
+                slowFrames++;
+                int nextLevel = getNextLevel();
+                if (slowFrames >= downgradeThreshold && nextLevel <= maxLevel) {
+                    slowFrames = 0;
+                    setLevel(nextLevel);
+                }
+            } else if (slowFrames > 0) {
+                slowFrames--;
+            }
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    /**
+     * 获取下一个更低的质量等级，滚轮模式下跳过不起作用的等级
+     *
+     * @return 下一个等级，已经是最低的等级时返回大于{@link #LEVEL_NO_ANTI_ALIAS}的值
+     */
+    private int getNextLevel() {
+        if (pickerView.isWheelMode() && level < LEVEL_NO_ANTI_ALIAS) {
+            return LEVEL_NO_ANTI_ALIAS;
+        }
+        return level + 1;
+    }
+
+    /**
+     * PickerView切换了滚轮模式，滚轮模式下只保留有效的等级，其他等级恢复到最高质量
+     */
+    void onWheelModeChanged() {
+        if (pickerView != null && pickerView.isWheelMode() && level != LEVEL_NO_ANTI_ALIAS) {
+            setLevel(LEVEL_FULL);
+        }
+    }
+
+    private void stopMonitoring() {
+        if (isMonitoring) {
+            isMonitoring = false;
+            Choreographer.getInstance().removeFrameCallback(frameCallback);
+        }
+        slowFrames = 0;
+    }
+
+    private void setLevel(int level) {
+        if (this.level == level) {
+            return;
+        }
+        this.level = level;
+        if (pickerView != null) {
+            pickerView.onQualityLevelChanged();
+            if (onQualityChangedListener != null) {
+                onQualityChangedListener.onQualityChanged(pickerView, level);
+            }
+        }
+    }
+
+    /**
+     * @return 当前的质量等级，LEVEL_XXX
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * 设置最多降低到哪一级
+     *
+     * @param maxLevel LEVEL_XXX，默认为{@link #LEVEL_NO_ANTI_ALIAS}，为{@link #LEVEL_FULL}时不会降低质量
+     */
+    public void setMaxLevel(int maxLevel) {
+        this.maxLevel = Math.max(LEVEL_FULL, Math.min(maxLevel, LEVEL_NO_ANTI_ALIAS));
+        if (level > this.maxLevel) {
+            setLevel(pickerView != null && pickerView.isWheelMode() ? LEVEL_FULL : this.maxLevel);
+        }
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * 设置每一帧的时间预算，帧间隔超过预算的1.5倍时记为一次超时
+     *
+     * @param frameBudgetMillis 时间预算，单位毫秒，默认为16.67ms
+     */
+    public void setFrameBudgetMillis(float frameBudgetMillis) {
+        this.frameBudgetNanos = (long) (frameBudgetMillis * 1_000_000);
+    }
+
+    /**
+     * 设置累计多少次超时之后降低一级，每一个正常的帧会抵消一次超时
+     *
+     * @param downgradeThreshold 超时的次数，默认为4
+     */
+    public void setDowngradeThreshold(int downgradeThreshold) {
+        this.downgradeThreshold = Math.max(1, downgradeThreshold);
+    }
+
+    /**
+     * 设置停止滚动多久之后恢复到最高质量
+     *
+     * @param restoreDelayMillis 时间，单位毫秒，默认为1000ms
+     */
+    public void setRestoreDelayMillis(long restoreDelayMillis) {
+        this.restoreDelayMillis = restoreDelayMillis;
+    }
+
+    /**
+     * 设置质量等级变化的监听器
+     *
+     * @param listener 监听器，传入null则取消监听
+     */
+    public void setOnQualityChangedListener(@Nullable OnQualityChangedListener listener) {
+        this.onQualityChangedListener = listener;
+    }
+}
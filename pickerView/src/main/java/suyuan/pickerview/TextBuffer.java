@@ -0,0 +1,186 @@
+package suyuan.pickerview;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 可复用的文本缓冲区，用于{@link PickerView.Adapter#writeText(int, TextBuffer)}
+ * 内部的char[]只在容量不够时扩容，整数、补零整数和定点小数的格式化都直接写入数组，不会创建String
+ *
+ * @author suyuan
+ */
+public final class TextBuffer implements CharSequence {
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private char[] chars;
+    private int length = 0;
+
+    public TextBuffer() {
+        this(16);
+    }
+
+    public TextBuffer(int capacity) {
+        chars = new char[Math.max(capacity, 1)];
+    }
+
+    /**
+     * 获取内部的数组，有效的字符为[0, length())，数组可能会在写入时被替换，不要长期持有
+     *
+     * @return 内部的数组
+     */
+    @NonNull
+    public char[] getChars() {
+        return chars;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + length);
+        }
+        return chars[index];
+    }
+
+    @NonNull
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        return new String(chars, start, end - start);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    public TextBuffer clear() {
+        length = 0;
+        return this;
+    }
+
+    public TextBuffer append(char c) {
+        ensureCapacity(length + 1);
+        chars[length++] = c;
+        return this;
+    }
+
+    public TextBuffer append(@NonNull CharSequence text) {
+        int textLength = text.length();
+        ensureCapacity(length + textLength);
+        if (text instanceof String) {
+            ((String) text).getChars(0, textLength, chars, length);
+        } else {
+            for (int i = 0; i < textLength; i++) {
+                chars[length + i] = text.charAt(i);
+            }
+        }
+        length += textLength;
+        return this;
+    }
+
+    public TextBuffer append(@NonNull char[] text, int offset, int count) {
+        ensureCapacity(length + count);
+        System.arraycopy(text, offset, chars, length, count);
+        length += count;
+        return this;
+    }
+
+    /**
+     * 写入十进制整数
+     *
+     * @param value 整数
+     * @return this
+     */
+    public TextBuffer appendInt(long value) {
+        return appendPaddedInt(value, 1);
+    }
+
+    /**
+     * 写入十进制整数，位数不足时在前面补零，例如 appendPaddedInt(5, 2) 写入"05"，负号不计入位数
+     *
+     * @param value     整数
+     * @param minDigits 最少的位数
+     * @return this
+     */
+    public TextBuffer appendPaddedInt(long value, int minDigits) {
+        boolean isNegative = value < 0;
+        // 统一转为负数计算，Long.MIN_VALUE也不会溢出
+        long negativeValue = isNegative ? value : -value;
+        int digits = 1;
+        for (long rest = negativeValue / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int width = Math.max(digits, minDigits);
+        ensureCapacity(length + width + 1);
+        if (isNegative) {
+            chars[length++] = '-';
+        }
+        int end = length + width;
+        for (int i = end - 1; i >= length; i--) {
+            chars[i] = (char) ('0' - negativeValue % 10);
+            negativeValue /= 10;
+        }
+        length = end;
+        return this;
+    }
+
+    /**
+     * 写入定点小数，例如 appendFixed(12345, 2) 写入"123.45"
+     *
+     * @param unscaledValue  放大了10^fractionDigits倍之后的整数
+     * @param fractionDigits 小数的位数，范围为[0, 18]
+     * @return this
+     */
+    public TextBuffer appendFixed(long unscaledValue, int fractionDigits) {
+        if (fractionDigits <= 0) {
+            return appendInt(unscaledValue);
+        }
+        long power = POWERS_OF_TEN[fractionDigits];
+        long integerPart = unscaledValue / power;
+        long fractionPart = unscaledValue % power;
+        if (unscaledValue < 0) {
+            // 整数部分为0时也需要负号，例如-0.5
+            append('-');
+            integerPart = -integerPart;
+            fractionPart = -fractionPart;
+        }
+        appendInt(integerPart);
+        append('.');
+        return appendPaddedInt(fractionPart, fractionDigits);
+    }
+
+    /**
+     * 按照四舍五入写入固定位数的小数，例如 appendDecimal(3.14159, 2) 写入"3.14"
+     * 放大之后的值需要在long的范围内
+     *
+     * @param value          小数
+     * @param fractionDigits 小数的位数，范围为[0, 18]
+     * @return this
+     */
+    public TextBuffer appendDecimal(double value, int fractionDigits) {
+        int digits = Math.max(fractionDigits, 0);
+        return appendFixed(Math.round(value * POWERS_OF_TEN[digits]), digits);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > chars.length) {
+            char[] newChars = new char[Math.max(capacity, chars.length * 2)];
+            System.arraycopy(chars, 0, newChars, 0, length);
+            chars = newChars;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package suyuan.pickerview;
+
+import android.graphics.Canvas;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * 默认的ItemRenderer，绘制一行居中的文字
+ * 选中项过渡时，文字被分为渐变层和底色层两部分，分别用选中和未选中的颜色裁剪绘制，渐变层的高度随着过渡比例变化
+ * 可以继承该类，在调用super.draw之后绘制额外的内容
+ *
+ * @author suyuan
+ */
+public class TextItemRenderer implements ItemRenderer<Void> {
+
+    @Nullable
+    @Override
+    public Void prepare(@NonNull PickerView pickerView, int position, @Nullable Void recycled) {
+        return null;
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas, @NonNull ItemDrawState state, @Nullable Void content) {
+        TextBuffer text = state.getText();
+        float x = state.getCenterX();
+        float baseLine = state.getBaseLine();
+        if (!state.isSelectedRow()) {
+            canvas.drawText(text.getChars(), 0, text.length(), x, baseLine, state.getUnselectedPaint());
+            return;
+        }
+        if (!state.isTransition()) {
+            // 不绘制渐变时仍然可能处于过渡中，画布缩放模式下文字尺寸需要由画布缩放得到
+            float textScale = state.getTextScale();
+            if (textScale != 1f) {
+                canvas.save();
+                canvas.scale(textScale, textScale, x, state.getCenterY());
+                canvas.drawText(text.getChars(), 0, text.length(), x, baseLine, state.getSelectedPaint());
+                canvas.restore();
+            } else {
+                canvas.drawText(text.getChars(), 0, text.length(), x, baseLine, state.getSelectedPaint());
+            }
+            return;
+        }
+        float size = state.getTextSize();
+        int startX = (int) (x - state.getItemWidth() / 2);
+        int endX = (int) (x + state.getItemWidth() / 2);
+        int endY = (int) (state.getCenterY() + size / 2.0);
+        int startY = (int) (endY - size);
+        //颜色的scale需要两倍，要做到走了一半的时候颜色就都已经褪掉了
+        int changedY = (int) ((1 - state.getFraction()) * size);
+        //向下滑，此时是向上绘制，所以渐变层是底部向上渐变
+        if (state.isMovingDown()) {
+            //如果向下滑的时候，目前的状态是正在扩大，那么渐变层是从底部开始, 这个状态说明中间的text正在变大，该text要成为中间的数据来展示
+            if (state.isEnlarging()) {
+                drawGradientTextFromBottom(canvas, state, startX, startY, endX, endY, changedY);
+            } else {
+                //如果向下滑的时候，状态是缩放，那么渐变层从顶部开始，这个状态说明是中间的text开始变小，准备切换成上一个text
+                drawGradientTextFromTop(canvas, state, startX, startY, endX, endY, changedY);
+            }
+        } else {
+            //如果向上滑的时候，目前状态正在扩大，那么渐变层从顶部开始，这个状态说明中间的text开始变大，该text要成为中间的数据来展示
+            if (state.isEnlarging()) {
+                drawGradientTextFromTop(canvas, state, startX, startY, endX, endY, changedY);
+            } else {
+                //如果向上滑的时候，目前的状态是缩放，那么渐变层从底部开始，这个状态说明中间的text开始变小，准备切换成下一个text
+                drawGradientTextFromBottom(canvas, state, startX, startY, endX, endY, changedY);
+            }
+        }
+    }
+
+    /**
+     * 从文字的上方开始，绘制渐变文字
+     *
+     * @param canvas   画布
+     * @param state    绘制状态
+     * @param startX   文字的左侧x坐标
+     * @param startY   文字的顶部y坐标
+     * @param endX     文字的右侧x坐标
+     * @param endY     文字的底部y坐标
+     * @param changedY 根据缩放的比例，获得的渐变色绘制的高度
+     */
+    private void drawGradientTextFromTop(Canvas canvas, ItemDrawState state, int startX, int startY, int endX, int endY, int changedY) {
+        //绘制渐变层
+        canvas.save();
+        canvas.clipRect(startX, startY, endX, startY + changedY);
+        drawClippedText(canvas, state, true);
+        canvas.restore();
+        //绘制底色层
+        canvas.save();
+        canvas.clipRect(startX, startY + changedY, endX, endY);
+        drawClippedText(canvas, state, false);
+        canvas.restore();
+    }
+
+    /**
+     * 从文字的下方开始，绘制渐变文字
+     *
+     * @param canvas   画布
+     * @param state    绘制状态
+     * @param startX   文字的左侧x坐标
+     * @param startY   文字的顶部y坐标
+     * @param endX     文字的右侧x坐标
+     * @param endY     文字的底部y坐标
+     * @param changedY 根据缩放的比例，获得的渐变色绘制的高度
+     */
+    private void drawGradientTextFromBottom(Canvas canvas, ItemDrawState state, int startX, int startY, int endX, int endY, int changedY) {
+        //绘制渐变层
+        canvas.save();
+        canvas.clipRect(startX, endY - changedY, endX, endY);
+        drawClippedText(canvas, state, true);
+        canvas.restore();
+        //绘制底色层
+        canvas.save();
+        canvas.clipRect(startX, startY, endX, endY - changedY);
+        drawClippedText(canvas, state, false);
+        canvas.restore();
+    }
+
+    /**
+     * 在已经裁剪好的画布上绘制文字，画布缩放模式下以文字中点为中心缩放
+     */
+    private void drawClippedText(Canvas canvas, ItemDrawState state, boolean isGradientLayer) {
+        float x = state.getCenterX();
+        float textScale = state.getTextScale();
+        if (textScale != 1f) {
+            canvas.scale(textScale, textScale, x, state.getCenterY());
+        }
+        TextBuffer text = state.getText();
+        canvas.drawText(text.getChars(), 0, text.length(), x, state.getBaseLine(),
+                isGradientLayer ? state.getSelectedPaint() : state.getUnselectedPaint());
+    }
+}
@@ -0,0 +1,70 @@
+package suyuan.pickerview;
+
+import android.graphics.Paint;
+
+/**
+ * 选中文字在选中和未选中之间过渡时，文字尺寸、透明度以及baseLine偏移的查找表
+ * 过渡的比例被量化为STEPS份，每一份的值在样式变化的时候计算一次，绘制时只需要查表
+ * 量化之后相邻两帧的比例如果落在同一份中，画笔就不需要做任何修改
+ *
+ * @author suyuan
+ */
+final class TextStyleTable {
+    /**
+     * 过渡比例被量化的份数
+     */
+    static final int STEPS = 64;
+
+    private final float[] textSizes = new float[STEPS + 1];
+    private final int[] alphas = new int[STEPS + 1];
+    /**
+     * 文字中线到baseLine的距离
+     */
+    private final float[] baseLineOffsets = new float[STEPS + 1];
+
+    /**
+     * @param measurePaint       用来计算字体尺寸的画笔，会被修改文字尺寸
+     * @param selectedTextSize   选中文字的尺寸
+     * @param unselectedTextSize 未选中文字的尺寸
+     * @param selectedAlpha      选中文字的透明度
+     * @param unselectedAlpha    未选中文字的透明度
+     */
+    TextStyleTable(Paint measurePaint, int selectedTextSize, int unselectedTextSize, float selectedAlpha, float unselectedAlpha) {
+        Paint.FontMetricsInt fmi = new Paint.FontMetricsInt();
+        for (int step = 0; step <= STEPS; step++) {
+            float scale = (float) step / STEPS;
+            float size = (selectedTextSize - unselectedTextSize) * (1 - scale) + unselectedTextSize;
+            textSizes[step] = size;
+            alphas[step] = (int) (((selectedAlpha - unselectedAlpha) * (1 - scale) + unselectedAlpha) * 255);
+            measurePaint.setTextSize(size);
+            measurePaint.getFontMetricsInt(fmi);
+            baseLineOffsets[step] = -(fmi.bottom + fmi.top) / 2f;
+        }
+    }
+
+    /**
+     * 将过渡比例量化
+     *
+     * @param scale 过渡比例，0代表选中的状态，1代表未选中的状态
+     * @return 量化后的下标，范围是[0, STEPS]
+     */
+    static int getStep(float scale) {
+        int step = Math.round(scale * STEPS);
+        if (step < 0) {
+            return 0;
+        }
+        return Math.min(step, STEPS);
+    }
+
+    float getTextSize(int step) {
+        return textSizes[step];
+    }
+
+    int getAlpha(int step) {
+        return alphas[step];
+    }
+
+    float getBaseLineOffset(int step) {
+        return baseLineOffsets[step];
+    }
+}
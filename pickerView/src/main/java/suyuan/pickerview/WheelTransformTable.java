@@ -0,0 +1,143 @@
+package suyuan.pickerview;
+
+import android.graphics.Camera;
+import android.graphics.Matrix;
+
+/**
+ * 滚轮模式下每个像素偏移量对应的变换矩阵、透明度和插值比例的查找表
+ * 只在控件尺寸、distance或者文字样式变化的时候重新创建，绘制时只需要查表，不再使用Camera进行计算
+ * <p>
+ * 滚轮被看作一个圆柱，圆柱的半径是控件高度的一半，偏移量为d的文本旋转的角度为 d / radius，
+ * 投影到屏幕上的y坐标为 radius * sin(角度)，所以转过四分之一圈的文本正好投影到控件的上下边缘
+ *
+ * @author suyuan
+ */
+final class WheelTransformTable {
+    private static final int MATRIX_SIZE = 9;
+
+    final int width;
+    final int height;
+    final float distance;
+    final float sizeScale;
+    final float selectedAlpha;
+    final float unselectedAlpha;
+    /**
+     * 表中最大的偏移量，超过该偏移量的文本已经转到了圆柱的背面，不需要绘制
+     */
+    private final int maxOffset;
+    private final double radius;
+    /**
+     * 每个偏移量对应的矩阵，连续存放，每个矩阵占9个float
+     */
+    private final float[] matrices;
+    private final float[] alphas;
+    /**
+     * 每个偏移量对应的插值比例，0代表处于中间，1代表偏移量已经达到distance
+     */
+    private final float[] fractions;
+
+    /**
+     * @param width           控件的宽度
+     * @param height          控件的高度
+     * @param distance        两个文本之间的距离
+     * @param sizeScale       未选中的文字尺寸 / 选中的文字尺寸，文本按照选中的尺寸绘制，再通过矩阵缩放
+     * @param selectedAlpha   选中文字的透明度
+     * @param unselectedAlpha 未选中文字的透明度
+     */
+    WheelTransformTable(int width, int height, float distance, float sizeScale, float selectedAlpha, float unselectedAlpha) {
+        this.width = width;
+        this.height = height;
+        this.distance = distance;
+        this.sizeScale = sizeScale;
+        this.selectedAlpha = selectedAlpha;
+        this.unselectedAlpha = unselectedAlpha;
+        radius = Math.max(height / 2.0, 0);
+        maxOffset = (int) Math.round(radius * Math.PI / 2);
+        int count = maxOffset * 2 + 1;
+        matrices = new float[count * MATRIX_SIZE];
+        alphas = new float[count];
+        fractions = new float[count];
+        Camera camera = new Camera();
+        Matrix matrix = new Matrix();
+        float[] values = new float[MATRIX_SIZE];
+        for (int offset = -maxOffset; offset <= maxOffset; offset++) {
+            int index = offset + maxOffset;
+            double angle = radius > 0 ? offset / radius : 0;
+            float fraction = distance > 0 ? Math.min(Math.abs(offset) / distance, 1f) : 1f;
+            fractions[index] = fraction;
+            // 越靠近圆柱的边缘越透明
+            float depth = (float) Math.max(Math.cos(angle), 0);
+            alphas[index] = ((unselectedAlpha - selectedAlpha) * fraction + selectedAlpha) * depth;
+            // 以文本的中点为原点旋转，然后缩放到插值后的尺寸，最后移动到投影后的位置
+            camera.save();
+            camera.rotateX((float) -Math.toDegrees(angle));
+            camera.getMatrix(matrix);
+            camera.restore();
+            float scale = (sizeScale - 1) * fraction + 1;
+            matrix.preScale(scale, scale);
+            matrix.postTranslate(width / 2f, (float) (height / 2.0 + radius * Math.sin(angle)));
+            matrix.getValues(values);
+            System.arraycopy(values, 0, matrices, index * MATRIX_SIZE, MATRIX_SIZE);
+        }
+    }
+
+    /**
+     * 判断该表是否可以继续使用
+     */
+    boolean matches(int width, int height, float distance, float sizeScale, float selectedAlpha, float unselectedAlpha) {
+        return this.width == width && this.height == height && this.distance == distance && this.sizeScale == sizeScale
+                && this.selectedAlpha == selectedAlpha && this.unselectedAlpha == unselectedAlpha;
+    }
+
+    int getMaxOffset() {
+        return maxOffset;
+    }
+
+    /**
+     * 将偏移量对应的矩阵写入到out中
+     *
+     * @param offset  偏移量，范围是[-maxOffset, maxOffset]
+     * @param out     要写入的矩阵
+     * @param scratch 长度为9的临时数组，由调用者复用，避免每帧创建对象
+     */
+    void getMatrix(int offset, Matrix out, float[] scratch) {
+        System.arraycopy(matrices, (offset + maxOffset) * MATRIX_SIZE, scratch, 0, MATRIX_SIZE);
+        out.setValues(scratch);
+    }
+
+    float getAlpha(int offset) {
+        return alphas[offset + maxOffset];
+    }
+
+    float getFraction(int offset) {
+        return fractions[offset + maxOffset];
+    }
+
+    /**
+     * 获取偏移量投影到屏幕上的y坐标，超过maxOffset的偏移量投影到控件的边缘
+     *
+     * @param offset 偏移量，可以是小数
+     * @return 投影后的y坐标
+     */
+    float getProjectedY(float offset) {
+        if (radius <= 0) {
+            return height / 2f;
+        }
+        double angle = Math.max(-Math.PI / 2, Math.min(offset / radius, Math.PI / 2));
+        return (float) (height / 2.0 + radius * Math.sin(angle));
+    }
+
+    /**
+     * 将屏幕上的y坐标还原为偏移量，是{@link #getProjectedY(float)}的逆运算
+     *
+     * @param y 屏幕上的y坐标
+     * @return 偏移量，范围是[-maxOffset, maxOffset]
+     */
+    float getOffsetAt(float y) {
+        if (radius <= 0) {
+            return 0;
+        }
+        double sin = Math.max(-1, Math.min((y - height / 2.0) / radius, 1));
+        return (float) (radius * Math.asin(sin));
+    }
+}
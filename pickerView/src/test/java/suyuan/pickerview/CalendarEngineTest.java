@@ -0,0 +1,123 @@
+package suyuan.pickerview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 农历与公历转换的测试，参考数据为公布的春节、中秋、端午以及闰月的公历日期
+ */
+public class CalendarEngineTest {
+    private final LunarCalendarEngine lunar = LunarCalendarEngine.getInstance();
+    private final GregorianCalendarEngine gregorian = GregorianCalendarEngine.getInstance();
+
+    /**
+     * 春节的公历日期，{年, 月, 日}
+     */
+    private static final int[][] SPRING_FESTIVALS = {
+            {1900, 1, 31}, {1901, 2, 19}, {1912, 2, 18}, {1949, 1, 29}, {1950, 2, 17},
+            {1960, 1, 28}, {1970, 2, 6}, {1976, 1, 31}, {1980, 2, 16}, {1985, 2, 20},
+            {1990, 1, 27}, {1995, 1, 31}, {2000, 2, 5}, {2001, 1, 24}, {2008, 2, 7},
+            {2010, 2, 14}, {2012, 1, 23}, {2015, 2, 19}, {2020, 1, 25}, {2021, 2, 12},
+            {2022, 2, 1}, {2023, 1, 22}, {2024, 2, 10}, {2025, 1, 29}, {2026, 2, 17},
+            {2030, 2, 3}, {2033, 1, 31}, {2040, 2, 12}, {2050, 1, 23}, {2060, 2, 2},
+            {2100, 2, 9}
+    };
+
+    @Test
+    public void springFestival() {
+        for (int[] date : SPRING_FESTIVALS) {
+            assertLunar(date[0], date[1], date[2], date[0], 1, false, 1);
+        }
+    }
+
+    @Test
+    public void festivals() {
+        // 中秋
+        assertLunar(2019, 9, 13, 2019, 8, false, 15);
+        assertLunar(2020, 10, 1, 2020, 8, false, 15);
+        assertLunar(2023, 9, 29, 2023, 8, false, 15);
+        assertLunar(2024, 9, 17, 2024, 8, false, 15);
+        // 端午
+        assertLunar(2023, 6, 22, 2023, 5, false, 5);
+        assertLunar(2024, 6, 10, 2024, 5, false, 5);
+        // 除夕，2023年腊月是大月
+        assertLunar(2024, 2, 9, 2023, 12, false, 30);
+    }
+
+    @Test
+    public void leapMonths() {
+        assertLunar(2017, 7, 23, 2017, 6, true, 1);
+        assertLunar(2020, 5, 23, 2020, 4, true, 1);
+        assertLunar(2023, 3, 22, 2023, 2, true, 1);
+        assertLunar(2025, 7, 25, 2025, 6, true, 1);
+        assertLunar(2033, 12, 22, 2033, 11, true, 1);
+        assertEquals(13, lunar.getMonthCount(2023));
+        assertEquals(12, lunar.getMonthCount(2024));
+        // 2023年闰二月紧跟在二月之后
+        assertEquals(2, lunar.getMonthIndex(2023, 2, true));
+        assertEquals(3, lunar.getMonthIndex(2023, 3, false));
+        assertEquals(2, lunar.getMonth(2023, 2));
+        assertTrue(lunar.isLeapMonth(2023, 2));
+        assertFalse(lunar.isLeapMonth(2023, 1));
+    }
+
+    /**
+     * 1900年到2100年的每一天在两个方向上的转换都是连续且一致的
+     */
+    @Test
+    public void lunarRoundTrip() {
+        long epochDay = DateTimeFields.daysFromCivil(1900, 1, 31);
+        int[] date = new int[3];
+        for (int year = lunar.getMinYear(); year <= lunar.getMaxYear(); year++) {
+            for (int monthIndex = 0; monthIndex < lunar.getMonthCount(year); monthIndex++) {
+                int dayCount = lunar.getDayCount(year, monthIndex);
+                assertTrue(dayCount == 29 || dayCount == 30);
+                for (int day = 1; day <= dayCount; day++) {
+                    assertEquals(epochDay, lunar.toEpochDay(year, monthIndex, day));
+                    lunar.fromEpochDay(epochDay, date);
+                    assertEquals(year, date[CalendarEngine.YEAR]);
+                    assertEquals(monthIndex, date[CalendarEngine.MONTH_INDEX]);
+                    assertEquals(day, date[CalendarEngine.DAY]);
+                    epochDay++;
+                }
+            }
+        }
+        assertEquals(DateTimeFields.daysFromCivil(2101, 1, 29), epochDay);
+    }
+
+    @Test
+    public void gregorianRoundTrip() {
+        int[] date = new int[3];
+        for (long epochDay = -800000; epochDay < 800000; epochDay += 7) {
+            gregorian.fromEpochDay(epochDay, date);
+            assertEquals(epochDay, gregorian.toEpochDay(date[0], date[1], date[2]));
+            assertTrue(date[2] <= gregorian.getDayCount(date[0], date[1]));
+        }
+        assertEquals(29, gregorian.getDayCount(2000, 1));
+        assertEquals(28, gregorian.getDayCount(1900, 1));
+    }
+
+    @Test
+    public void lunarLabels() {
+        TextBuffer buffer = new TextBuffer();
+        lunar.writeMonthText(2023, 2, buffer);
+        buffer.append(' ');
+        lunar.writeDayText(2023, 2, 21, buffer);
+        assertEquals("闰二月 廿一", buffer.toString());
+    }
+
+    private void assertLunar(int year, int month, int day, int lunarYear, int lunarMonth, boolean isLeapMonth, int lunarDay) {
+        long epochDay = DateTimeFields.daysFromCivil(year, month, day);
+        int[] date = new int[3];
+        lunar.fromEpochDay(epochDay, date);
+        String message = year + "-" + month + "-" + day;
+        assertEquals(message, lunarYear, date[CalendarEngine.YEAR]);
+        assertEquals(message, lunarMonth, lunar.getMonth(date[0], date[1]));
+        assertEquals(message, isLeapMonth, lunar.isLeapMonth(date[0], date[1]));
+        assertEquals(message, lunarDay, date[CalendarEngine.DAY]);
+        assertEquals(message, epochDay, lunar.toEpochDay(lunarYear, lunar.getMonthIndex(lunarYear, lunarMonth, isLeapMonth), lunarDay));
+    }
+}
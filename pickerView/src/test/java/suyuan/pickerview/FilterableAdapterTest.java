@@ -0,0 +1,127 @@
+package suyuan.pickerview;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import static android.os.Looper.getMainLooper;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 前缀过滤的测试，索引在调用线程中直接建立，主线程的回调通过空闲Looper执行
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class FilterableAdapterTest {
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private FilterableAdapter<String> adapter;
+    private int selectCount;
+
+    @Before
+    public void setUp() {
+        selectCount = 0;
+        adapter = new FilterableAdapter<String>(Arrays.asList("Apple", "Banana", "Apricot", "avocado", "apex", "Cherry")) {
+            @Override
+            public String getText(String data, int position) {
+                return data;
+            }
+
+            @Override
+            public void onSelect(String data, int position) {
+                selectCount++;
+            }
+        };
+        adapter.setIndexExecutor(DIRECT_EXECUTOR);
+    }
+
+    private void filter(String prefix) {
+        adapter.filter(prefix);
+        shadowOf(getMainLooper()).idle();
+    }
+
+    private void assertFiltered(String... expected) {
+        assertEquals(expected.length, adapter.getDataSize());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], adapter.getData(i));
+        }
+    }
+
+    @Test
+    public void prefixNarrowing() {
+        adapter.setSelectedIndex(2);
+        filter("a");
+        assertFiltered("Apple", "Apricot", "avocado", "apex");
+        // 之前选中的数据仍然在结果中
+        assertEquals("Apricot", adapter.getSelectedData());
+        filter("ap");
+        assertFiltered("Apple", "Apricot", "apex");
+        assertEquals("Apricot", adapter.getSelectedData());
+        filter("apr");
+        assertFiltered("Apricot");
+        assertEquals(2, adapter.getSourcePosition(0));
+        // 前缀变短时重新在全部数据中查找
+        filter("av");
+        assertFiltered("avocado");
+        assertEquals(0, adapter.getSelectedIndex());
+        filter("");
+        assertFalse(adapter.isFiltered());
+        assertEquals(6, adapter.getDataSize());
+        assertEquals("avocado", adapter.getSelectedData());
+    }
+
+    @Test
+    public void noMatch() {
+        filter("ap");
+        filter("apz");
+        assertTrue(adapter.isFiltered());
+        assertEquals(0, adapter.getDataSize());
+        assertEquals(-1, adapter.getSelectedIndex());
+        filter("a");
+        assertFiltered("Apple", "Apricot", "avocado", "apex");
+        assertEquals(0, adapter.getSelectedIndex());
+    }
+
+    @Test
+    public void noMatchPickerIgnoresTouch() {
+        PickerView pickerView = new PickerView(RuntimeEnvironment.application);
+        pickerView.setDataRecycled(true);
+        pickerView.setAdapter(adapter);
+        filter("zz");
+        assertEquals(-1, adapter.getSelectedIndex());
+
+        long downTime = SystemClock.uptimeMillis();
+        pickerView.onTouchEvent(MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 50, 100, 0));
+        for (int i = 1; i <= 10; i++) {
+            pickerView.onTouchEvent(MotionEvent.obtain(downTime, downTime + i * 16, MotionEvent.ACTION_MOVE, 50, 100 + i * 40, 0));
+        }
+        pickerView.onTouchEvent(MotionEvent.obtain(downTime, downTime + 200, MotionEvent.ACTION_UP, 50, 500, 0));
+        shadowOf(getMainLooper()).idleFor(Duration.ofSeconds(1));
+        pickerView.performSelect();
+
+        assertEquals(-1, adapter.getSelectedIndex());
+        assertEquals(0f, pickerView.getScrollOffset(), 0f);
+        assertFalse(pickerView.isRollingBack());
+        assertEquals(0, selectCount);
+    }
+}
@@ -0,0 +1,143 @@
+package suyuan.pickerview;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+
+import suyuan.pickerview.tools.PackedDatasetWriter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 用PackedDatasetWriter写出，再用PackedDataset和PackedDatasetAdapter读回
+ */
+public class PackedDatasetTest {
+    private static final String INDENTED_TEXT = "广东省\n"
+            + "  广州市\n"
+            + "    天河区\n"
+            + "\t\t越秀区\n"
+            + "  深圳市\n"
+            + "    南山区\n"
+            + "北京市\n"
+            + "  北京市\n"
+            + "    东城区\n"
+            + "Café 😀\n";
+    /**
+     * 按照广度优先的顺序编号后每个节点的文本
+     */
+    private static final String[] TEXTS = {
+            "广东省", "北京市", "Café 😀",
+            "广州市", "深圳市", "北京市",
+            "天河区", "越秀区", "南山区", "东城区"
+    };
+
+    private static File write(PackedDatasetWriter writer) throws IOException {
+        File file = File.createTempFile("dataset", ".pkd");
+        file.deleteOnExit();
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            writer.write(outputStream);
+        } finally {
+            outputStream.close();
+        }
+        return file;
+    }
+
+    private static PackedDataset writeIndentedText() throws IOException {
+        PackedDatasetWriter writer = new PackedDatasetWriter();
+        writer.readIndentedText(new StringReader(INDENTED_TEXT));
+        return PackedDataset.open(write(writer));
+    }
+
+    @Test
+    public void structure() throws IOException {
+        PackedDataset dataset = writeIndentedText();
+        assertEquals(10, dataset.getNodeCount());
+        assertEquals(3, dataset.getRootCount());
+        int[][] children = {{3, 2}, {5, 1}, {-1, 0}, {6, 2}, {8, 1}, {9, 1}, {-1, 0}, {-1, 0}, {-1, 0}, {-1, 0}};
+        for (int node = 0; node < children.length; node++) {
+            assertEquals(children[node][0], dataset.getFirstChild(node));
+            assertEquals(children[node][1], dataset.getChildCount(node));
+        }
+    }
+
+    @Test
+    public void multiByteText() throws IOException {
+        PackedDataset dataset = writeIndentedText();
+        TextBuffer buffer = new TextBuffer();
+        for (int node = 0; node < TEXTS.length; node++) {
+            assertEquals(TEXTS[node], dataset.getText(node));
+            buffer.clear();
+            dataset.getText(node, buffer);
+            assertEquals(TEXTS[node], buffer.toString());
+        }
+    }
+
+    @Test
+    public void pooledTextsAreWrittenOnce() throws IOException {
+        PackedDatasetWriter writer = new PackedDatasetWriter();
+        PackedDatasetWriter.Node root = writer.addRoot("重复");
+        root.addChild("重复");
+        root.addChild("é");
+        root.addChild("重复");
+        File file = write(writer);
+        PackedDataset dataset = PackedDataset.open(file);
+        assertEquals("重复", dataset.getText(3));
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            int stringPoolOffset = readInt(randomAccessFile, 16);
+            int poolSize = (int) randomAccessFile.length() - stringPoolOffset;
+            assertEquals("重复é".getBytes(Charset.forName("UTF-8")).length, poolSize);
+            int firstOffset = readInt(randomAccessFile, PackedDataset.HEADER_SIZE);
+            for (int node : new int[]{1, 3}) {
+                assertEquals(firstOffset, readInt(randomAccessFile, PackedDataset.HEADER_SIZE + node * PackedDataset.NODE_SIZE));
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    @Test
+    public void adapter() throws IOException {
+        PackedDatasetAdapter adapter = new PackedDatasetAdapter(writeIndentedText()) {
+            @Override
+            public void onSelect(Integer data, int position) {
+            }
+        };
+        TextBuffer buffer = new TextBuffer();
+        assertEquals(3, adapter.getDataSize());
+        adapter.writeText(2, buffer);
+        assertEquals("Café 😀", buffer.toString());
+
+        adapter.setParent(0);
+        assertEquals(2, adapter.getDataSize());
+        assertEquals(0, adapter.getSelectedIndex());
+        assertEquals("广州市", adapter.getText(adapter.getData(0), 0));
+        buffer.clear();
+        adapter.writeText(1, buffer);
+        assertEquals("深圳市", buffer.toString());
+
+        adapter.setParent(adapter.getNode(0));
+        assertEquals(2, adapter.getDataSize());
+        assertEquals("越秀区", adapter.getText(adapter.getData(1), 1));
+
+        adapter.setParent(2);
+        assertEquals(0, adapter.getDataSize());
+        assertEquals(-1, adapter.getSelectedIndex());
+
+        adapter.setParent(-1);
+        assertEquals(3, adapter.getDataSize());
+    }
+
+    private static int readInt(RandomAccessFile file, long position) throws IOException {
+        file.seek(position);
+        return file.readInt();
+    }
+}
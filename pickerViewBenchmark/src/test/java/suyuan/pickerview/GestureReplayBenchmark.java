@@ -0,0 +1,308 @@
+package suyuan.pickerview;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 回放预先定义的手势序列，统计一次完整交互（拖动、回弹、联动）的开销
+ * 时间完全由假时钟驱动：主线程Looper处于PAUSED模式，回弹和DatePicker的联动都由Choreographer的帧回调驱动，
+ * 每一帧依次分发到期的触摸事件、推进Looper的时间、最后绘制需要重绘的View，所以每次回放的结果都是相同的
+ * <p>
+ * draws是每一帧中需要重绘的PickerView的数量，与开启硬件加速时onDraw的次数一致；
+ * 文本、测量和onSelect的次数通过{@link PickerProbe}统计；
+ * allocatedBytes是主线程在回放期间分配的字节数，包括Robolectric自身的开销，只适合与之前的结果进行比较
+ * <p>
+ * 结果以JSON格式输出到build/reports/benchmark/gesture-replay.json，可以用来跟踪趋势
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class GestureReplayBenchmark {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 600;
+    /**
+     * 手势结束之后继续运行的时间，保证回弹和联动都已经完成
+     */
+    private static final long SETTLE_MILLIS = 2000;
+    private static final File OUTPUT = new File("build/reports/benchmark/gesture-replay.json");
+    private static final List<String> results = new ArrayList<>();
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        writeResults();
+    }
+
+    @Test
+    public void slowDrag() {
+        GestureTrace trace = new GestureTrace.Builder("slow_drag")
+                .drag(GestureTrace.CENTER_X, 300, 700, 1000, 1)
+                .pause(SETTLE_MILLIS)
+                .build();
+        replayTwice(trace, false);
+    }
+
+    @Test
+    public void fastFling() {
+        // 240Hz的触摸采样，每帧4个采样点
+        GestureTrace trace = new GestureTrace.Builder("fast_fling")
+                .drag(GestureTrace.CENTER_X, 550, 50, 96, 4)
+                .pause(300)
+                .drag(GestureTrace.CENTER_X, 50, 550, 96, 4)
+                .pause(SETTLE_MILLIS)
+                .build();
+        replayTwice(trace, false);
+    }
+
+    @Test
+    public void wrapAround() {
+        GestureTrace trace = new GestureTrace.Builder("wrap_around")
+                .drag(GestureTrace.CENTER_X, 100, 1300, 600, 2)
+                .pause(SETTLE_MILLIS)
+                .build();
+        replayTwice(trace, true);
+    }
+
+    @Test
+    public void dateCascade() {
+        GestureTrace trace = new GestureTrace.Builder("date_cascade")
+                .on(R.id.year).drag(GestureTrace.CENTER_X, 100, 400, 400, 1)
+                .pause(500)
+                .on(R.id.month).drag(GestureTrace.CENTER_X, 400, 100, 400, 1)
+                .pause(500)
+                .on(R.id.day).drag(GestureTrace.CENTER_X, 100, 500, 400, 1)
+                .pause(SETTLE_MILLIS)
+                .build();
+        Result first = replay(new DatePicker(activity), trace);
+        Result second = replay(new DatePicker(activity), trace);
+        assertDeterministic(first, second);
+        results.add(first.toJson());
+    }
+
+    private void replayTwice(GestureTrace trace, boolean isDataRecycled) {
+        Result first = replay(createPickerView(isDataRecycled), trace);
+        Result second = replay(createPickerView(isDataRecycled), trace);
+        assertDeterministic(first, second);
+        results.add(first.toJson());
+    }
+
+    private PickerView createPickerView(boolean isDataRecycled) {
+        PickerView pickerView = new PickerView(activity);
+        pickerView.setDataRecycled(isDataRecycled);
+        List<Integer> dataList = new ArrayList<>();
+        for (int i = 0; i < (isDataRecycled ? 20 : 100); i++) {
+            dataList.add(i);
+        }
+        pickerView.setAdapter(new PickerView.Adapter<Integer>(dataList) {
+            @Override
+            public String getText(Integer data, int position) {
+                return "Item " + data;
+            }
+
+            @Override
+            public void onSelect(Integer data, int position) {
+            }
+        });
+        return pickerView;
+    }
+
+    private static void assertDeterministic(Result first, Result second) {
+        assertTrue(first.name + " 没有绘制", first.draws > 0);
+        assertEquals(first.name + " draws", first.draws, second.draws);
+        assertEquals(first.name + " textCalls", first.textCalls, second.textCalls);
+        assertEquals(first.name + " measureRuns", first.measureRuns, second.measureRuns);
+        assertEquals(first.name + " selects", first.selects, second.selects);
+    }
+
+    /**
+     * 将root放入Activity中，按照帧回放手势序列
+     */
+    private Result replay(View root, GestureTrace trace) {
+        activity.setContentView(root, new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        ShadowLooper looper = shadowOf(Looper.getMainLooper());
+        looper.idle();
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        root.draw(canvas);
+
+        List<PickerView> pickerViews = new ArrayList<>();
+        findPickerViews(root, pickerViews);
+        CountingProbe probe = new CountingProbe();
+        for (PickerView pickerView : pickerViews) {
+            pickerView.setProbe(probe);
+        }
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        long startMillis = SystemClock.uptimeMillis();
+        long downMillis = startMillis;
+        int eventIndex = 0;
+        int frames = 0;
+        int touchEvents = 0;
+        int draws = 0;
+        for (long frameTime = 0; frameTime <= trace.durationMillis; frameTime += GestureTrace.FRAME_MILLIS) {
+            while (eventIndex < trace.events.size() && trace.events.get(eventIndex).getTime() <= frameTime) {
+                GestureTrace.Event event = trace.events.get(eventIndex++);
+                if (event.action == MotionEvent.ACTION_DOWN) {
+                    downMillis = startMillis + event.getTime();
+                }
+                View target = event.targetId == View.NO_ID ? root : root.findViewById(event.targetId);
+                float[] offset = getOffsetInRoot(root, target);
+                MotionEvent motionEvent = event.toMotionEvent(startMillis, downMillis, target, offset[0], offset[1]);
+                root.dispatchTouchEvent(motionEvent);
+                motionEvent.recycle();
+                touchEvents++;
+            }
+            looper.idleFor(GestureTrace.FRAME_MILLIS, TimeUnit.MILLISECONDS);
+            for (PickerView pickerView : pickerViews) {
+                if (pickerView.isDirty()) {
+                    draws++;
+                }
+            }
+            if (root.isDirty()) {
+                root.draw(canvas);
+            }
+            frames++;
+        }
+
+        for (PickerView pickerView : pickerViews) {
+            pickerView.setProbe(null);
+        }
+        Result result = new Result();
+        result.name = trace.name;
+        result.frames = frames;
+        result.touchEvents = touchEvents;
+        result.draws = draws;
+        result.textCalls = probe.textCount;
+        result.measureRuns = probe.measureCount;
+        result.selects = probe.selectCount;
+        result.allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return result;
+    }
+
+    private static void findPickerViews(View view, List<PickerView> out) {
+        if (view instanceof PickerView) {
+            out.add((PickerView) view);
+        } else if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                findPickerViews(group.getChildAt(i), out);
+            }
+        }
+    }
+
+    private static float[] getOffsetInRoot(View root, View target) {
+        float x = 0;
+        float y = 0;
+        View view = target;
+        while (view != root && view != null) {
+            x += view.getLeft();
+            y += view.getTop();
+            view = view.getParent() instanceof View ? (View) view.getParent() : null;
+        }
+        return new float[]{x, y};
+    }
+
+    private static void writeResults() throws IOException {
+        File directory = OUTPUT.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            throw new IOException("cannot create " + directory);
+        }
+        StringBuilder json = new StringBuilder("{\"traces\":[");
+        for (int i = 0; i < results.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\n  ").append(results.get(i));
+        }
+        json.append("\n]}\n");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(OUTPUT), Charset.forName("UTF-8"));
+        try {
+            writer.write(json.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static final class CountingProbe implements PickerProbe {
+        int textCount;
+        int measureCount;
+        int selectCount;
+
+        @Override
+        public void onTextLoaded() {
+            textCount++;
+        }
+
+        @Override
+        public void onMaxTextWidthMeasured() {
+            measureCount++;
+        }
+
+        @Override
+        public void onSelectDispatched() {
+            selectCount++;
+        }
+    }
+
+    private static final class Result {
+        String name;
+        int frames;
+        int touchEvents;
+        int draws;
+        int textCalls;
+        int measureRuns;
+        int selects;
+        long allocatedBytes;
+
+        String toJson() {
+            return "{\"name\":\"" + name + "\""
+                    + ",\"frames\":" + frames
+                    + ",\"touchEvents\":" + touchEvents
+                    + ",\"draws\":" + draws
+                    + ",\"textCalls\":" + textCalls
+                    + ",\"measureRuns\":" + measureRuns
+                    + ",\"selects\":" + selects
+                    + ",\"allocatedBytes\":" + allocatedBytes
+                    + "}";
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package suyuan.pickerview;
+
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 一段预先定义好的触摸事件序列，时间相对于序列的开始，单位毫秒
+ * MOVE事件和真实设备一样按帧批量分发，一个事件中可以包含多个采样点，除最后一个以外都是历史采样点
+ * 每个事件都有一个目标View，坐标相对于目标View，回放时换算为根View中的坐标
+ */
+final class GestureTrace {
+    /**
+     * 一帧的时长，MOVE事件每帧分发一次
+     */
+    static final long FRAME_MILLIS = 16;
+    /**
+     * 作为x坐标时代表目标View的水平中点
+     */
+    static final float CENTER_X = Float.NaN;
+
+    final String name;
+    final List<Event> events;
+    final long durationMillis;
+
+    private GestureTrace(String name, List<Event> events, long durationMillis) {
+        this.name = name;
+        this.events = Collections.unmodifiableList(events);
+        this.durationMillis = durationMillis;
+    }
+
+    static final class Event {
+        /**
+         * 目标View的id，为View.NO_ID时目标为根View
+         */
+        final int targetId;
+        final int action;
+        final float x;
+        final long[] times;
+        final float[] ys;
+
+        Event(int targetId, int action, float x, long[] times, float[] ys) {
+            this.targetId = targetId;
+            this.action = action;
+            this.x = x;
+            this.times = times;
+            this.ys = ys;
+        }
+
+        long getTime() {
+            return times[times.length - 1];
+        }
+
+        /**
+         * 创建对应的MotionEvent，使用完需要recycle
+         *
+         * @param startMillis 序列开始时的uptimeMillis
+         * @param downMillis  本次手势按下时的uptimeMillis
+         * @param target      目标View
+         * @param offsetX     目标View在根View中的x偏移
+         * @param offsetY     目标View在根View中的y偏移
+         */
+        MotionEvent toMotionEvent(long startMillis, long downMillis, View target, float offsetX, float offsetY) {
+            float rootX = (Float.isNaN(x) ? target.getWidth() / 2f : x) + offsetX;
+            MotionEvent event = MotionEvent.obtain(downMillis, startMillis + times[0], action, rootX, ys[0] + offsetY, 0);
+            for (int i = 1; i < times.length; i++) {
+                event.addBatch(startMillis + times[i], rootX, ys[i] + offsetY, 1f, 1f, 0);
+            }
+            return event;
+        }
+    }
+
+    static final class Builder {
+        private final String name;
+        private final List<Event> events = new ArrayList<>();
+        private long time = 0;
+        private int targetId = View.NO_ID;
+
+        Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 之后的手势都作用在该View上
+         *
+         * @param viewId 目标View的id，为View.NO_ID时目标为根View
+         * @return this
+         */
+        Builder on(int viewId) {
+            targetId = viewId;
+            return this;
+        }
+
+        /**
+         * 从fromY匀速拖动到toY后抬起
+         *
+         * @param x               手指相对于目标View的x坐标，为CENTER_X时在目标View的水平中点
+         * @param fromY           按下的y坐标
+         * @param toY             抬起的y坐标
+         * @param durationMillis  拖动的时长
+         * @param samplesPerFrame 每一帧的采样点数量，例如240Hz的触摸屏在60Hz的屏幕上为4
+         * @return this
+         */
+        Builder drag(float x, float fromY, float toY, long durationMillis, int samplesPerFrame) {
+            long downTime = time;
+            events.add(new Event(targetId, MotionEvent.ACTION_DOWN, x, new long[]{downTime}, new float[]{fromY}));
+            long frameCount = Math.max(1, durationMillis / FRAME_MILLIS);
+            for (long frame = 1; frame <= frameCount; frame++) {
+                long[] times = new long[samplesPerFrame];
+                float[] ys = new float[samplesPerFrame];
+                for (int i = 0; i < samplesPerFrame; i++) {
+                    // 采样点均匀分布在上一帧到这一帧之间
+                    float progress = (frame - 1 + (i + 1f) / samplesPerFrame) / frameCount;
+                    times[i] = downTime + (long) (progress * durationMillis);
+                    ys[i] = fromY + (toY - fromY) * progress;
+                }
+                events.add(new Event(targetId, MotionEvent.ACTION_MOVE, x, times, ys));
+            }
+            time = downTime + durationMillis;
+            events.add(new Event(targetId, MotionEvent.ACTION_UP, x, new long[]{time}, new float[]{toY}));
+            return this;
+        }
+
+        /**
+         * 不做任何操作，等待回弹和联动完成
+         *
+         * @param millis 等待的时长
+         * @return this
+         */
+        Builder pause(long millis) {
+            time += millis;
+            return this;
+        }
+
+        GestureTrace build() {
+            return new GestureTrace(name, new ArrayList<>(events), time);
+        }
+    }
+}